@@ -0,0 +1,57 @@
+package org.example.nguyenducchung.benchmarks;
+
+import org.example.nguyenducchung.models.dtos.CourseSuggestion;
+import org.example.nguyenducchung.services.CourseSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gợi ý khóa học trên {@link CourseSearchIndex} với 100k tên khóa học sinh ngẫu nhiên từ các từ tiếng
+ * Việt và tiếng Anh (có dấu), ứng với từng giai đoạn người dùng gõ: một ký tự, một từ chưa xong,
+ * nhiều từ. Cách làm cũ tương ứng là LIKE '%term%' quét cả bảng course.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CourseSearchBenchmark {
+    private static final String[] WORDS = {
+            "Lập", "trình", "Java", "nâng", "cao", "cơ", "bản", "Cơ", "sở", "dữ", "liệu", "Đồ", "họa", "máy",
+            "tính", "Kiểm", "thử", "phần", "mềm", "Thiết", "kế", "hệ", "thống", "mạng", "Python", "Spring",
+            "Boot", "Data", "Science", "Machine", "Learning", "Web", "Mobile", "Android", "iOS", "Cloud",
+            "Docker", "Kubernetes", "An", "toàn", "thông", "tin", "Quản", "lý", "dự", "án", "Tiếng", "Anh",
+            "giao", "tiếp", "Kế", "toán", "tài", "chính", "Marketing", "số", "Thiết", "UI", "UX"
+    };
+
+    @Param({"100000"})
+    public int courseCount;
+
+    @Param({"l", "lap tr", "co so du lieu", "kubernetes", "thiet ke he th"})
+    public String query;
+
+    private CourseSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new CourseSearchIndex(null);
+        Random random = new Random(42);
+        for (int i = 0; i < courseCount; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 2 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                name.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            index.put((long) i, name.append(' ').append(i % 1000).toString());
+        }
+    }
+
+    @Benchmark
+    public List<CourseSuggestion> autocomplete() {
+        return index.search(query, 10);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.nguyenducchung.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.nguyenducchung.models.entities.Course;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đo chi phí serialize List&lt;Course&gt; (body trả về của /api/registrations/register) bằng
+ * ObjectMapper cấu hình giống Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CourseSerializationBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    public int courseCount;
+
+    private ObjectMapper objectMapper;
+    private List<Course> courses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        courses = new ArrayList<>(courseCount);
+        for (int i = 0; i < courseCount; i++) {
+            courses.add(Course.builder()
+                    .id((long) i)
+                    .name("Course " + i)
+                    .startTime(new Date())
+                    .endTime(new Date())
+                    .price(1000L + i)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCourses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(courses);
+    }
+}
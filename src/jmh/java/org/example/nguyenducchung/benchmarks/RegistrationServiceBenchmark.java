@@ -0,0 +1,112 @@
+package org.example.nguyenducchung.benchmarks;
+
+import org.example.nguyenducchung.NguyenDucChungApplication;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đo registerCourse/unregisterCourse trên H2 in-memory (cấu hình lấy từ application.properties của test).
+ * Mỗi lần gọi chỉ đăng ký/hủy một khóa "mục tiêu" của một sinh viên đã có sẵn
+ * {@code registrationsPerStudent} đăng ký, trong catalog {@code catalogSize} khóa học. Khóa mục tiêu là khóa cuối
+ * catalog, nằm ngoài các khóa đã đăng ký sẵn nên catalogSize phải lớn hơn registrationsPerStudent.
+ * <p>
+ * Chạy: {@code mvn -Pbenchmark -DskipTests verify -Djmh.args="RegistrationServiceBenchmark"},
+ * kết quả JSON ở target/jmh-result.json.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"0", "10", "100"})
+        public int registrationsPerStudent;
+
+        @Param({"1000", "10000"})
+        public int catalogSize;
+
+        ConfigurableApplicationContext context;
+        RegistrationService registrationService;
+        String studentEmail = "bench@example.com";
+        Long targetCourseId;
+
+        @Setup(Level.Trial)
+        public void start() {
+            if (catalogSize <= registrationsPerStudent) {
+                throw new IllegalStateException("catalogSize must be greater than registrationsPerStudent");
+            }
+            context = new SpringApplicationBuilder(NguyenDucChungApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties("spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                            "spring.jpa.properties.hibernate.session_factory.statement_inspector=",
+                            "logging.level.root=WARN")
+                    .run();
+            registrationService = context.getBean(RegistrationService.class);
+
+            CourseRepository courseRepository = context.getBean(CourseRepository.class);
+            List<Course> courses = new ArrayList<>(catalogSize);
+            for (int i = 0; i < catalogSize; i++) {
+                courses.add(Course.builder()
+                        .name("Course " + i)
+                        .startTime(new Date(System.currentTimeMillis() + 86400000L * 30))
+                        .endTime(new Date(System.currentTimeMillis() + 86400000L * 60))
+                        .price(1000L + i)
+                        .build());
+            }
+            courses = courseRepository.saveAll(courses);
+
+            context.getBean(StudentRepository.class).save(Student.builder().email(studentEmail).build());
+            for (int i = 0; i < registrationsPerStudent; i++) {
+                registrationService.registerCourse(studentEmail, courses.get(i).getId());
+            }
+            targetCourseId = courses.get(catalogSize - 1).getId();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AfterRegister {
+        @TearDown(Level.Invocation)
+        public void unregister(Catalog catalog) {
+            catalog.registrationService.unregisterCourse(catalog.studentEmail, catalog.targetCourseId);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeUnregister {
+        @Setup(Level.Invocation)
+        public void register(Catalog catalog) {
+            catalog.registrationService.registerCourse(catalog.studentEmail, catalog.targetCourseId);
+        }
+    }
+
+    @Benchmark
+    public List<Course> registerCourse(Catalog catalog, AfterRegister afterRegister) {
+        return catalog.registrationService.registerCourse(catalog.studentEmail, catalog.targetCourseId);
+    }
+
+    @Benchmark
+    public void unregisterCourse(Catalog catalog, BeforeUnregister beforeUnregister) {
+        catalog.registrationService.unregisterCourse(catalog.studentEmail, catalog.targetCourseId);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.nguyenducchung.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.dtos.ImportReport;
+import org.example.nguyenducchung.services.BulkImportService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Import từ dòng lệnh, chạy xong thì tắt ứng dụng (exit code 1 nếu có dòng bị từ chối):
+ * <pre>
+ * java -jar app.jar --spring.main.web-application-type=none \
+ *     --import.courses=courses.csv --import.students=students.csv
+ * </pre>
+ * Không có tham số --import.* thì ứng dụng chạy bình thường.
+ */
+@Slf4j
+@Component
+public class BulkImportCommand implements ApplicationRunner {
+    private static final String COURSES_OPTION = "import.courses";
+    private static final String STUDENTS_OPTION = "import.students";
+
+    private final BulkImportService bulkImportService;
+    private final ConfigurableApplicationContext context;
+
+    public BulkImportCommand(BulkImportService bulkImportService, ConfigurableApplicationContext context) {
+        this.bulkImportService = bulkImportService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(COURSES_OPTION) && !args.containsOption(STUDENTS_OPTION)) {
+            return;
+        }
+
+        long rejected = 0;
+        if (args.containsOption(COURSES_OPTION)) {
+            for (String file : args.getOptionValues(COURSES_OPTION)) {
+                try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+                    rejected += log(file, bulkImportService.importCourses(channel));
+                }
+            }
+        }
+        if (args.containsOption(STUDENTS_OPTION)) {
+            for (String file : args.getOptionValues(STUDENTS_OPTION)) {
+                try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+                    rejected += log(file, bulkImportService.importStudents(channel));
+                }
+            }
+        }
+
+        int exitCode = rejected == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private static long log(String file, ImportReport report) {
+        log.info("Imported {} from {}: {} rows read, {} inserted, {} updated, {} rejected in {} ms ({} rows/s)",
+                report.getEntity(), file, report.getRowsRead(), report.getInserted(), report.getUpdated(),
+                report.getRejected(), report.getElapsedMillis(), report.getRowsPerSecond());
+        report.getRejections().forEach(rejection ->
+                log.warn("Rejected line {}: {}", rejection.getLine(), rejection.getReason()));
+        return report.getRejected();
+    }
+}
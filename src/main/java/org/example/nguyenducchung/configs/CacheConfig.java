@@ -0,0 +1,14 @@
+package org.example.nguyenducchung.configs;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bật cache của Spring; loại cache và kích thước/TTL cấu hình qua spring.cache.* trong
+ * application.properties (spring.cache.type=none để tắt).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String STUDENTS_BY_EMAIL = "studentsByEmail";
+}
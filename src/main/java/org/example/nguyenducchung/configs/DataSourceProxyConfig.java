@@ -0,0 +1,40 @@
+package org.example.nguyenducchung.configs;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Bọc DataSource chính (bean "dataSource") bằng datasource-proxy khi có bean {@link QueryExecutionListener}:
+ * listener thấy mọi câu lệnh gửi xuống JDBC, cả của Hibernate lẫn JdbcTemplate. Không có listener nào
+ * thì DataSource được giữ nguyên.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+    private static final String DATA_SOURCE = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor queryListenerDataSourcePostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !DATA_SOURCE.equals(beanName)) {
+                    return bean;
+                }
+                List<QueryExecutionListener> registered = listeners.orderedStream().toList();
+                if (registered.isEmpty()) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+                registered.forEach(builder::listener);
+                return builder.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.nguyenducchung.configs;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache của Hibernate qua JCache (Caffeine). Mỗi region được tạo tường minh với kích
+ * thước và thời gian hết hạn từ hibernate-cache.regions.&lt;region&gt;.max-size / .ttl trong
+ * application.properties; region không được khai báo sẽ làm Hibernate báo lỗi khi khởi động.
+ * <p>
+ * Query cache không bật: danh mục khóa học (/api/courses/available, /search) đọc từ index trong bộ nhớ
+ * (CourseAvailabilityIndex, CourseSearchIndex), không có truy vấn danh mục nào lặp lại để cache, còn bật
+ * query cache thì mọi lần ghi bảng đều phải cập nhật region update-timestamps.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    public static final String COURSE_REGION = "course";
+    public static final String STUDENT_REGION = "student";
+
+    private static final List<String> REGIONS = List.of(COURSE_REGION, STUDENT_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // URI riêng cho mỗi ApplicationContext để các context (ví dụ trong test) không dùng chung region
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : REGIONS) {
+            long maxSize = environment.getProperty("hibernate-cache.regions." + region + ".max-size", Long.class, 1000L);
+            Duration ttl = DurationStyle.detectAndParse(
+                    environment.getProperty("hibernate-cache.regions." + region + ".ttl", "10m"));
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
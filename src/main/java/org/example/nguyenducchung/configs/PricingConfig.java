@@ -0,0 +1,39 @@
+package org.example.nguyenducchung.configs;
+
+import org.example.nguyenducchung.services.DiscountRule;
+import org.example.nguyenducchung.services.DiscountRules;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+
+/**
+ * Các luật giảm giá có sẵn cho {@link org.example.nguyenducchung.services.PricingEngine}, cấu hình qua
+ * registration.pricing.*; percent=0 thì luật bị tắt. Luật riêng chỉ cần khai báo thêm bean DiscountRule.
+ */
+@Configuration
+public class PricingConfig {
+    @Bean
+    @Order(1)
+    public DiscountRule registrationCountDiscount(
+            @Value("${registration.pricing.registration-count.min-previous:2}") int minPreviousRegistrations,
+            @Value("${registration.pricing.registration-count.percent:25}") int percent) {
+        return DiscountRules.registrationCount(minPreviousRegistrations, percent);
+    }
+
+    @Bean
+    @Order(2)
+    public DiscountRule bundleDiscount(@Value("${registration.pricing.bundle.min-courses:3}") int minCourses,
+                                       @Value("${registration.pricing.bundle.percent:0}") int percent) {
+        return DiscountRules.bundle(minCourses, percent);
+    }
+
+    @Bean
+    @Order(3)
+    public DiscountRule earlyBirdDiscount(@Value("${registration.pricing.early-bird.before-start:30d}") Duration beforeStart,
+                                          @Value("${registration.pricing.early-bird.percent:0}") int percent) {
+        return DiscountRules.earlyBird(beforeStart, percent);
+    }
+}
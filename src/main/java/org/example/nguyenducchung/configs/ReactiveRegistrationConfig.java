@@ -0,0 +1,61 @@
+package org.example.nguyenducchung.configs;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+
+/**
+ * Hạ tầng R2DBC cho profile "reactive" (đọc spring.r2dbc.*).
+ * <p>
+ * Auto-config R2DBC của Spring Boot bị tắt trong {@code NguyenDucChungApplication}: nếu bật, nó cần
+ * spring.r2dbc.url ở mọi profile và R2dbcTransactionManager của nó sẽ tranh làm TransactionManager mặc
+ * định với JpaTransactionManager. Ở đây transaction manager reactive chỉ được dùng qua TransactionalOperator.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveRegistrationConfig implements DisposableBean {
+    // Không đăng ký ConnectionFactory làm bean: DataSourceAutoConfiguration sẽ lùi lại khi thấy
+    // bean ConnectionFactory và khi đó JPA (vẫn dùng cho các API khác) không còn DataSource.
+    private final ConnectionPool connectionPool;
+
+    public ReactiveRegistrationConfig(R2dbcProperties properties) {
+        ConnectionFactoryBuilder builder = ConnectionFactoryBuilder.withUrl(properties.getUrl());
+        if (StringUtils.hasText(properties.getUsername())) {
+            builder.username(properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            builder.password(properties.getPassword());
+        }
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(builder.build())
+                .initialSize(properties.getPool().getInitialSize())
+                .maxSize(properties.getPool().getMaxSize())
+                .maxAcquireTime(properties.getPool().getMaxAcquireTime())
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.nguyenducchung.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bật bằng registration.read-replicas.enabled=true: DataSource chính trở thành
+ * {@link ReplicaRoutingDataSource} (bọc trong LazyConnectionDataSourceProxy) trên pool primary
+ * (spring.datasource.*, spring.datasource.hikari.*) và một pool Hikari cho mỗi URL trong
+ * registration.read-replicas.urls. Replica dùng chung tài khoản với primary nếu không khai báo riêng.
+ * <p>
+ * Flyway, JdbcTemplate và mọi transaction ghi vẫn chỉ dùng primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "registration.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig implements DisposableBean {
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                 @Value("${registration.read-replicas.urls}") List<String> urls,
+                                 @Value("${registration.read-replicas.username:}") String username,
+                                 @Value("${registration.read-replicas.password:}") String password,
+                                 @Value("${registration.read-replicas.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize,
+                                 @Value("${registration.read-replicas.connection-timeout:1s}") Duration connectionTimeout,
+                                 @Value("${registration.read-replicas.retry-after:30s}") Duration retryAfter) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+            replica.setPassword(StringUtils.hasText(username) ? password : properties.determinePassword());
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            // Replica chưa sẵn sàng lúc khởi động không làm ứng dụng dừng; đọc tạm từ primary
+            replica.setInitializationFailTimeout(-1);
+            replicaPools.add(replica);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicas, retryAfter));
+    }
+
+    @Override
+    public void destroy() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.nguyenducchung.configs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes khi đọc từ replica: sinh viên vừa đăng ký/hủy đăng ký được ghi nhớ trong
+ * registration.read-replicas.pin-duration; trong thời gian đó các transaction read-only đọc dữ liệu của
+ * sinh viên này được {@link ReplicaRoutingDataSource} đưa về primary để không thấy dữ liệu cũ do replica trễ.
+ * pin-duration=0 thì tắt.
+ */
+@Component
+public class ReadYourWritesTracker {
+    static final Object PIN_RESOURCE = ReadYourWritesTracker.class.getName() + ".PIN";
+
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWritesTracker(@Value("${registration.read-replicas.pin-duration:5s}") Duration pinDuration,
+                                 @Value("${registration.read-replicas.pin-max-students:100000}") long maxStudents) {
+        this.recentWrites = pinDuration.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(maxStudents)
+                .expireAfterWrite(pinDuration)
+                .build();
+    }
+
+    public void recordWrite(String studentEmail) {
+        if (recentWrites != null) {
+            recentWrites.put(studentEmail, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Gọi ở đầu transaction read-only, trước câu SQL đầu tiên (connection được lấy lúc đó): nếu sinh viên
+     * vừa ghi thì cả transaction hiện tại đọc từ primary.
+     */
+    public void pinIfRecentlyWritten(String studentEmail) {
+        if (recentWrites == null || recentWrites.getIfPresent(studentEmail) == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PIN_RESOURCE)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PIN_RESOURCE, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PIN_RESOURCE);
+            }
+        });
+    }
+
+    static boolean isPinned() {
+        return TransactionSynchronizationManager.hasResource(PIN_RESOURCE);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.nguyenducchung.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.nguyenducchung.services.RegistrationRules;
+import org.example.nguyenducchung.services.WaitlistService;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Đo thời gian mọi phương thức public của RegistrationService và các thao tác join/leave/position của
+ * WaitlistService (không đo claim/firstWaiting mà RegistrationService gọi bên trong) vào timer {@value #METRIC_NAME}
+ * với tag {@code method} và {@code outcome}. Outcome được suy ra từ thông điệp lỗi mà service ném ra;
+ * lỗi không nằm trong bảng dưới đây được gắn {@code error}.
+ * <p>
+ * Aspect bọc ngoài @Transactional nên thời gian đo gồm cả commit và lỗi phát sinh lúc commit.
+ * Thời gian này cũng được cộng vào {@link ServerTiming} nếu request đang được theo dõi.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RegistrationMetricsAspect {
+    public static final String METRIC_NAME = "registration.service";
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+
+    private static final Map<String, String> OUTCOMES = Map.ofEntries(
+            Map.entry(RegistrationRules.STUDENT_NOT_FOUND, "student-not-found"),
+            Map.entry(RegistrationRules.COURSE_NOT_FOUND, "course-not-found"),
+            Map.entry(RegistrationRules.REGISTER_STARTED, "already-started"),
+            Map.entry(RegistrationRules.UNREGISTER_STARTED, "already-started"),
+            Map.entry(RegistrationRules.ALREADY_REGISTERED, "duplicate"),
+            Map.entry(RegistrationRules.REGISTRATION_NOT_FOUND, "registration-not-found"),
+            Map.entry(RegistrationRules.COURSE_FULL, "course-full"),
+            Map.entry(WaitlistService.ALREADY_WAITLISTED, "already-waitlisted"),
+            Map.entry(WaitlistService.NOT_WAITLISTED, "not-waitlisted"),
+            Map.entry(WaitlistService.SEATS_AVAILABLE, "seats-available"),
+            Map.entry("Cart is empty", "invalid-cart"),
+            Map.entry("Cart contains duplicate courses", "invalid-cart"));
+
+    private final MeterRegistry meterRegistry;
+
+    public RegistrationMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * org.example.nguyenducchung.services.RegistrationService.*(..))"
+            + " || execution(public * org.example.nguyenducchung.services.WaitlistService.join(..))"
+            + " || execution(public * org.example.nguyenducchung.services.WaitlistService.leave(..))"
+            + " || execution(public * org.example.nguyenducchung.services.WaitlistService.position(..))")
+    public Object timeRegistration(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_SUCCESS;
+        try {
+            return joinPoint.proceed();
+        }
+        catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        }
+        finally {
+            long elapsedNanos = sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Thời gian xử lý của RegistrationService và join/leave/position của WaitlistService")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.recordService(elapsedNanos);
+            }
+        }
+    }
+
+    static String outcomeOf(RuntimeException e) {
+        return e.getMessage() == null ? OUTCOME_ERROR : OUTCOMES.getOrDefault(e.getMessage(), OUTCOME_ERROR);
+    }
+}
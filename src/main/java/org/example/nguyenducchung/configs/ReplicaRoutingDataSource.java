@@ -0,0 +1,96 @@
+package org.example.nguyenducchung.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transaction read-only (@Transactional(readOnly = true), truy vấn của Spring Data repository ngoài
+ * transaction) đọc từ replica theo vòng tròn; mọi thứ khác đi vào primary.
+ * <p>
+ * Phải được bọc trong LazyConnectionDataSourceProxy để connection thật chỉ được lấy ở câu SQL đầu tiên,
+ * khi cờ read-only của transaction đã được thiết lập. Replica không lấy được connection bị coi là hỏng
+ * trong retry-after và transaction đó đọc từ primary; transaction đang được {@link ReadYourWritesTracker}
+ * ghim cũng đọc từ primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<String> replicaKeys;
+    private final Map<String, DataSource> replicas;
+    private final Duration retryAfter;
+    private final Map<String, Long> downUntil = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration retryAfter) {
+        this.primary = primary;
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.replicas = Map.copyOf(replicas);
+        this.retryAfter = retryAfter;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWritesTracker.isPinned()) {
+            return PRIMARY;
+        }
+        long now = System.nanoTime();
+        for (int attempt = 0; attempt < replicaKeys.size(); attempt++) {
+            String key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+            Long until = downUntil.get(key);
+            if (until == null || until - now <= 0) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replicas.get(key).getConnection();
+            downUntil.remove(key);
+            return connection;
+        }
+        catch (SQLException e) {
+            log.warn("Read replica {} unavailable, reading from primary for {}: {}", key, retryAfter, e.getMessage());
+            downUntil.put((String) key, System.nanoTime() + retryAfter.toNanos());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Replica đang bị bỏ qua vì vừa lỗi kết nối (trong retry-after).
+     */
+    public boolean isReplicaDown(String key) {
+        Long until = downUntil.get(key);
+        return until != null && until - System.nanoTime() > 0;
+    }
+}
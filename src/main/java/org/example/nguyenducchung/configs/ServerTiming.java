@@ -0,0 +1,68 @@
+package org.example.nguyenducchung.configs;
+
+import java.util.Locale;
+
+/**
+ * Số đo của một request đang được theo dõi Server-Timing, gắn vào thread xử lý request.
+ * Chỉ tồn tại khi {@link ServerTimingFilter} bật theo dõi cho request đó; các điểm đo
+ * (JDBC, RegistrationService, serialize) bỏ qua khi {@link #current()} trả về null.
+ */
+public final class ServerTiming {
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private long dbNanos;
+    private int sqlCount;
+    private long serviceNanos;
+    private long bodyWriteStartedAt;
+
+    private ServerTiming() {
+    }
+
+    static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public void recordStatement(long nanos) {
+        dbNanos += nanos;
+        sqlCount++;
+    }
+
+    public void recordService(long nanos) {
+        serviceNanos += nanos;
+    }
+
+    void markBodyWrite() {
+        if (bodyWriteStartedAt == 0) {
+            bodyWriteStartedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Giá trị header Server-Timing (dur đơn vị ms). {@code sql} chỉ mang số câu lệnh trong desc, không có dur;
+     * {@code service} là thời gian trong RegistrationService
+     * sau khi trừ thời gian DB; {@code serialization} tính từ lúc controller trả body đến hết request.
+     */
+    String toHeaderValue() {
+        long finishedAt = System.nanoTime();
+        long serializationNanos = bodyWriteStartedAt == 0 ? 0 : finishedAt - bodyWriteStartedAt;
+        return String.format(Locale.ROOT,
+                "db;dur=%.3f, sql;desc=\"%d statements\", service;dur=%.3f, serialization;dur=%.3f, total;dur=%.3f",
+                millis(dbNanos), sqlCount, millis(Math.max(0, serviceNanos - dbNanos)),
+                millis(serializationNanos), millis(finishedAt - startedAt));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
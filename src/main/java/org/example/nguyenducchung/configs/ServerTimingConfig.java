@@ -0,0 +1,42 @@
+package org.example.nguyenducchung.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Nối các điểm đo của Server-Timing: listener câu lệnh JDBC trên DataSource và mốc bắt đầu serialize body.
+ */
+@Configuration
+public class ServerTimingConfig {
+
+    @Bean
+    public ServerTimingQueryListener serverTimingQueryListener() {
+        return new ServerTimingQueryListener();
+    }
+
+    @ControllerAdvice
+    static class SerializationStartAdvice implements ResponseBodyAdvice<Object> {
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.markBodyWrite();
+            }
+            return body;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.nguyenducchung.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gắn header Server-Timing (DB, số câu SQL, logic service, serialize) cho /api/registrations/*.
+ * Bật cho một request khi client gửi header {@value #REQUEST_HEADER}, hoặc ngẫu nhiên theo tỉ lệ
+ * registration.server-timing.sample-rate (0 = tắt, 1 = mọi request). Request không được chọn
+ * không bị bọc response và không đo gì thêm.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+    public static final String REQUEST_HEADER = "X-Server-Timing";
+    public static final String RESPONSE_HEADER = "Server-Timing";
+
+    private final double sampleRate;
+
+    public ServerTimingFilter(@Value("${registration.server-timing.sample-rate:0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/registrations/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (request.getHeader(REQUEST_HEADER) == null
+                && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Body được giữ lại trong bộ đệm để header vẫn ghi được sau khi serialize xong
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        ServerTiming timing = ServerTiming.start();
+        try {
+            filterChain.doFilter(request, wrapper);
+            wrapper.setHeader(RESPONSE_HEADER, timing.toHeaderValue());
+        }
+        finally {
+            ServerTiming.clear();
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.nguyenducchung.configs;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Đo thời gian execute của từng câu lệnh ở tầng JDBC (DataSource được bọc bởi {@link DataSourceProxyConfig})
+ * và cộng vào {@link ServerTiming} của request hiện tại, nên câu gửi qua JdbcTemplate cũng được tính như câu
+ * của Hibernate. Một JDBC batch tính là một câu.
+ */
+public class ServerTimingQueryListener implements QueryExecutionListener {
+    private static final String STARTED_AT = ServerTimingQueryListener.class.getName() + ".startedAt";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (ServerTiming.current() != null) {
+            execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ServerTiming timing = ServerTiming.current();
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        if (timing != null && startedAt != null) {
+            timing.recordStatement(System.nanoTime() - startedAt);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.nguyenducchung.controllers;
+
+import org.example.nguyenducchung.models.dtos.RegistrationTicket;
+import org.example.nguyenducchung.services.RegistrationQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "registration.async.enabled", havingValue = "true")
+@RequestMapping("/api/registrations/async")
+public class AsyncRegistrationController {
+    private final RegistrationQueue registrationQueue;
+
+    public AsyncRegistrationController(RegistrationQueue registrationQueue) {
+        this.registrationQueue = registrationQueue;
+    }
+
+    @PostMapping("/register")
+    public ResponseEntity registerCourse(
+            @RequestParam String studentEmail,
+            @RequestParam Long courseId) {
+        if (!StringUtils.hasText(studentEmail) || courseId <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid registration request"));
+        }
+
+        RegistrationTicket ticket = registrationQueue.submit(studentEmail, courseId);
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Registration queue is full, please retry"));
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/registrations/async/" + ticket.getTicketId()))
+                .body(ticket);
+    }
+
+    @GetMapping("/{ticketId}")
+    public ResponseEntity getTicket(@PathVariable String ticketId) {
+        RegistrationTicket ticket = registrationQueue.find(ticketId);
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Ticket not found"));
+        }
+        return ResponseEntity.ok(ticket);
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.nguyenducchung.controllers;
+
+import org.example.nguyenducchung.models.dtos.ImportReport;
+import org.example.nguyenducchung.services.BulkImportService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+/**
+ * Body của request là nội dung file CSV (text/csv), được đọc thẳng từ stream không qua bộ nhớ đệm.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/admin/imports")
+public class BulkImportController {
+    private final BulkImportService bulkImportService;
+
+    public BulkImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    @PostMapping("/students")
+    public ResponseEntity importStudents(InputStream body) {
+        try{
+            ImportReport report = bulkImportService.importStudents(Channels.newChannel(body));
+            return ResponseEntity.ok(report);
+        }
+        catch (Exception e) {
+            return ErrorResponses.badRequest(e);
+        }
+    }
+
+    @PostMapping("/courses")
+    public ResponseEntity importCourses(InputStream body) {
+        try{
+            ImportReport report = bulkImportService.importCourses(Channels.newChannel(body));
+            return ResponseEntity.ok(report);
+        }
+        catch (Exception e) {
+            return ErrorResponses.badRequest(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.nguyenducchung.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/admin/caches")
+public class CacheStatsController {
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatsController(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @GetMapping
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                Map<String, Object> cacheResponse = new LinkedHashMap<>();
+                cacheResponse.put("size", caffeineCache.getNativeCache().estimatedSize());
+                cacheResponse.put("hitCount", stats.hitCount());
+                cacheResponse.put("missCount", stats.missCount());
+                cacheResponse.put("hitRate", stats.hitRate());
+                cacheResponse.put("evictionCount", stats.evictionCount());
+                response.put(name, cacheResponse);
+            }
+        }
+        return response;
+    }
+
+    @GetMapping("/hibernate")
+    public Map<String, Object> hibernateCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("secondLevelCacheHitCount", hits);
+        response.put("secondLevelCacheMissCount", misses);
+        response.put("secondLevelCachePutCount", statistics.getSecondLevelCachePutCount());
+        response.put("secondLevelCacheHitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            Map<String, Object> regionResponse = new LinkedHashMap<>();
+            regionResponse.put("hitCount", region.getHitCount());
+            regionResponse.put("missCount", region.getMissCount());
+            regionResponse.put("putCount", region.getPutCount());
+            regions.put(regionName, regionResponse);
+        }
+        response.put("regions", regions);
+        return response;
+    }
+}
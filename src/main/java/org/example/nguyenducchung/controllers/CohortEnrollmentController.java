@@ -0,0 +1,31 @@
+package org.example.nguyenducchung.controllers;
+
+import org.example.nguyenducchung.models.dtos.CohortEnrollmentReport;
+import org.example.nguyenducchung.models.dtos.CohortEnrollmentRequest;
+import org.example.nguyenducchung.services.CohortEnrollmentService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/admin/cohorts")
+public class CohortEnrollmentController {
+    private final CohortEnrollmentService cohortEnrollmentService;
+
+    public CohortEnrollmentController(CohortEnrollmentService cohortEnrollmentService) {
+        this.cohortEnrollmentService = cohortEnrollmentService;
+    }
+
+    @PostMapping("/{courseId}/enroll")
+    public ResponseEntity enrollCohort(@PathVariable Long courseId, @RequestBody CohortEnrollmentRequest request) {
+        try{
+            CohortEnrollmentReport report = cohortEnrollmentService.enrollCohort(courseId, request.getStudentEmails());
+            return ResponseEntity.ok(report);
+        }
+        catch (Exception e) {
+            return ErrorResponses.badRequest(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.nguyenducchung.controllers;
+
+import org.example.nguyenducchung.services.CourseAvailabilityIndex;
+import org.example.nguyenducchung.services.CourseSearchIndex;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/courses")
+public class CourseController {
+    private final CourseAvailabilityIndex courseAvailabilityIndex;
+    private final CourseSearchIndex courseSearchIndex;
+
+    public CourseController(CourseAvailabilityIndex courseAvailabilityIndex, CourseSearchIndex courseSearchIndex) {
+        this.courseAvailabilityIndex = courseAvailabilityIndex;
+        this.courseSearchIndex = courseSearchIndex;
+    }
+
+    /**
+     * Khóa học còn đăng ký được (chưa bắt đầu), startTime trong [from, to) và giá trong [minPrice, maxPrice],
+     * đọc từ index trong bộ nhớ.
+     */
+    @GetMapping("/available")
+    public ResponseEntity available(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                                    @RequestParam(required = false) Long minPrice,
+                                    @RequestParam(required = false) Long maxPrice,
+                                    @RequestParam(defaultValue = "50") int limit) {
+        if (from != null && to != null && !from.before(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "from must be before to"));
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "minPrice must not exceed maxPrice"));
+        }
+        return ResponseEntity.ok(courseAvailabilityIndex.search(from, to, minPrice, maxPrice, limit));
+    }
+
+    /**
+     * Gợi ý khóa học theo tên khi đang gõ: không phân biệt hoa thường và dấu, từ cuối có thể chưa gõ xong.
+     */
+    @GetMapping("/search")
+    public ResponseEntity search(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(courseSearchIndex.search(q, limit));
+    }
+}
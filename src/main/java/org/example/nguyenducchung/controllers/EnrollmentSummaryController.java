@@ -0,0 +1,27 @@
+package org.example.nguyenducchung.controllers;
+
+import org.example.nguyenducchung.services.EnrollmentSummaryService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/admin/enrollment-summaries")
+public class EnrollmentSummaryController {
+    private final EnrollmentSummaryService enrollmentSummaryService;
+
+    public EnrollmentSummaryController(EnrollmentSummaryService enrollmentSummaryService) {
+        this.enrollmentSummaryService = enrollmentSummaryService;
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity rebuild() {
+        int rebuilt = enrollmentSummaryService.rebuildAll();
+        return ResponseEntity.ok(Map.of("rebuiltStudents", rebuilt));
+    }
+}
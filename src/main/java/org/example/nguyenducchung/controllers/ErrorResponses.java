@@ -0,0 +1,42 @@
+package org.example.nguyenducchung.controllers;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
+
+import java.util.Map;
+
+/**
+ * Chuyển lỗi nghiệp vụ thành 400 {"error": message}. Lỗi hạ tầng (hết connection trong pool, deadlock,
+ * lock/query timeout, không mở được transaction) không phải lỗi của request nên được ném tiếp để Spring
+ * trả 5xx: client biết có thể thử lại và Idempotency-Key không lưu response đó. Vi phạm ràng buộc mà service
+ * không đổi thành lỗi nghiệp vụ (khóa ngoại, NOT NULL) là lỗi phía server nên cũng được ném tiếp.
+ */
+final class ErrorResponses {
+    private ErrorResponses() {
+    }
+
+    static ResponseEntity<Map<String, String>> badRequest(Exception e) {
+        if (isInfrastructureFailure(e)) {
+            throw e instanceof RuntimeException runtime ? runtime : new IllegalStateException(e);
+        }
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+    }
+
+    static boolean isInfrastructureFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransactionException
+                    || cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
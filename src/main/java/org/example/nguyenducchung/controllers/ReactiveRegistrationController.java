@@ -0,0 +1,42 @@
+package org.example.nguyenducchung.controllers;
+
+import org.example.nguyenducchung.services.ReactiveRegistrationService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Cùng API với {@link RegistrationController} nhưng chạy trên WebFlux + R2DBC (profile "reactive").
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/registrations")
+public class ReactiveRegistrationController {
+    private final ReactiveRegistrationService registrationService;
+
+    public ReactiveRegistrationController(ReactiveRegistrationService registrationService) {
+        this.registrationService = registrationService;
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<Object>> registerCourse(
+            @RequestParam String studentEmail,
+            @RequestParam Long courseId) {
+        return registrationService.registerCourse(studentEmail, courseId)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .onErrorResume(e -> !ErrorResponses.isInfrastructureFailure(e),
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()))));
+    }
+
+    @DeleteMapping("/unregister/{courseId}/{email}")
+    public Mono<ResponseEntity<Object>> unregisterCourse(@PathVariable Long courseId, @PathVariable String email) {
+        return registrationService.unregisterCourse(email, courseId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok((Object) Map.of("message", "Unregistered successfully"))))
+                .onErrorResume(e -> !ErrorResponses.isInfrastructureFailure(e),
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()))));
+    }
+}
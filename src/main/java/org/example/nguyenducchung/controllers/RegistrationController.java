@@ -1,48 +1,125 @@
 package org.example.nguyenducchung.controllers;
 
+import org.example.nguyenducchung.models.dtos.CheckoutRequest;
+import org.example.nguyenducchung.models.dtos.CheckoutResponse;
 import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.services.IdempotencyService;
 import org.example.nguyenducchung.services.RegistrationService;
-import org.springframework.http.HttpStatus;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/registrations")
 public class RegistrationController {
     private final RegistrationService registrationService;
+    private final IdempotencyService idempotencyService;
 
-    public RegistrationController(RegistrationService registrationService) {
+    public RegistrationController(RegistrationService registrationService, IdempotencyService idempotencyService) {
         this.registrationService = registrationService;
+        this.idempotencyService = idempotencyService;
     }
 
+    /**
+     * includeCourses=false: chỉ trả về đăng ký vừa tạo thay vì toàn bộ khóa học đã đăng ký.
+     */
     @PostMapping("/register")
     public ResponseEntity registerCourse(
             @RequestParam String studentEmail,
-            @RequestParam Long courseId) {
+            @RequestParam Long courseId,
+            @RequestParam(defaultValue = "true") boolean includeCourses,
+            @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) String idempotencyKey,
+            Principal principal) {
+        String fingerprint = "register:" + studentEmail + ":" + courseId + ":" + includeCourses;
+        return idempotencyService.execute(client(principal, studentEmail), idempotencyKey, fingerprint, () -> {
+            try{
+                if (!includeCourses) {
+                    return ResponseEntity.ok(registrationService.registerCourseView(studentEmail, courseId));
+                }
+                List<Course> registeredCourses = registrationService.registerCourse(studentEmail, courseId);
+                return ResponseEntity.ok(registeredCourses);
+            }
+            catch (Exception e) {
+                return ErrorResponses.badRequest(e);
+            }
+        });
+    }
+
+    @GetMapping("/students/{email}")
+    public ResponseEntity listStudentRegistrations(@PathVariable String email,
+                                                   @RequestParam(required = false) Long afterId,
+                                                   @RequestParam(defaultValue = "20") int size) {
         try{
-            List<Course> registeredCourses = registrationService.registerCourse(studentEmail, courseId);
-            return ResponseEntity.ok(registeredCourses);
+            return ResponseEntity.ok(registrationService.listStudentRegistrations(email, afterId, size));
         }
         catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+            return ErrorResponses.badRequest(e);
         }
     }
 
-    @DeleteMapping("/unregister/{courseId}/{email}")
-    public ResponseEntity unregisterCourse(@PathVariable Long courseId, @PathVariable String email) {
+    @GetMapping("/courses/{courseId}/roster")
+    public ResponseEntity listCourseRoster(@PathVariable Long courseId,
+                                           @RequestParam(required = false) Long afterId,
+                                           @RequestParam(defaultValue = "20") int size) {
+        try{
+            return ResponseEntity.ok(registrationService.listCourseRoster(courseId, afterId, size));
+        }
+        catch (Exception e) {
+            return ErrorResponses.badRequest(e);
+        }
+    }
+
+    @PostMapping("/checkout")
+    public ResponseEntity checkout(@RequestBody CheckoutRequest request) {
         try{
-            registrationService.unregisterCourse(email, courseId);
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Unregistered successfully");
+            CheckoutResponse response = registrationService.checkout(request.getStudentEmail(), request.getCourseIds());
             return ResponseEntity.ok(response);
         }
         catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+            return ErrorResponses.badRequest(e);
         }
+    }
+
+    /**
+     * Báo giá cho các khóa học trong giỏ (cùng body với /checkout), không ghi gì.
+     */
+    @PostMapping("/quote")
+    public ResponseEntity quote(@RequestBody CheckoutRequest request) {
+        try{
+            return ResponseEntity.ok(registrationService.quote(request.getStudentEmail(), request.getCourseIds()));
+        }
+        catch (Exception e) {
+            return ErrorResponses.badRequest(e);
+        }
+    }
+
+    @DeleteMapping("/unregister/{courseId}/{email}")
+    public ResponseEntity unregisterCourse(@PathVariable Long courseId, @PathVariable String email,
+                                           @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) String idempotencyKey,
+                                           Principal principal) {
+        return idempotencyService.execute(client(principal, email), idempotencyKey, "unregister:" + email + ":" + courseId, () -> {
+            try{
+                registrationService.unregisterCourse(email, courseId);
+                Map<String, String> response = new HashMap<>();
+                response.put("message", "Unregistered successfully");
+                return ResponseEntity.ok(response);
+            }
+            catch (Exception e) {
+                return ErrorResponses.badRequest(e);
+            }
+        });
+    }
 
+    /**
+     * Idempotency-Key được phân vùng theo client: người dùng đã xác thực, nếu không thì sinh viên của request.
+     */
+    private static String client(Principal principal, String studentEmail) {
+        return principal != null ? principal.getName() : studentEmail;
     }
 }
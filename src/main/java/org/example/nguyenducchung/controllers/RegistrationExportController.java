@@ -0,0 +1,56 @@
+package org.example.nguyenducchung.controllers;
+
+import org.example.nguyenducchung.services.RegistrationExportService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Nằm ngoài /api/registrations/* để không bị ServerTimingFilter bọc response (filter đó đệm toàn bộ body).
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/admin/registrations")
+public class RegistrationExportController {
+    private final RegistrationExportService registrationExportService;
+
+    public RegistrationExportController(RegistrationExportService registrationExportService) {
+        this.registrationExportService = registrationExportService;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) Long courseId,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                        @RequestParam(defaultValue = "csv") String format) {
+        RegistrationExportService.Format exportFormat = Arrays.stream(RegistrationExportService.Format.values())
+                .filter(value -> value.name().equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unsupported export format: " + format));
+        // Kiểm tra trước khi trả 200, vì lỗi trong lúc stream không còn đổi được status
+        RegistrationExportService.checkFilter(courseId, from, to);
+
+        boolean csv = exportFormat == RegistrationExportService.Format.CSV;
+        StreamingResponseBody body = out -> registrationExportService.export(courseId, from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"registrations." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity handleError(RuntimeException e) {
+        return ErrorResponses.badRequest(e);
+    }
+}
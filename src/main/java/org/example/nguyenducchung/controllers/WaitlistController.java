@@ -0,0 +1,51 @@
+package org.example.nguyenducchung.controllers;
+
+import org.example.nguyenducchung.services.WaitlistService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/waitlists")
+public class WaitlistController {
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @PostMapping("/{courseId}")
+    public ResponseEntity join(@PathVariable Long courseId, @RequestParam String studentEmail) {
+        try{
+            waitlistService.join(studentEmail, courseId);
+            return ResponseEntity.ok(waitlistService.position(studentEmail, courseId));
+        }
+        catch (Exception e) {
+            return ErrorResponses.badRequest(e);
+        }
+    }
+
+    @DeleteMapping("/{courseId}")
+    public ResponseEntity leave(@PathVariable Long courseId, @RequestParam String studentEmail) {
+        try{
+            waitlistService.leave(studentEmail, courseId);
+            return ResponseEntity.ok(Map.of("message", "Left the waitlist"));
+        }
+        catch (Exception e) {
+            return ErrorResponses.badRequest(e);
+        }
+    }
+
+    @GetMapping("/{courseId}/position")
+    public ResponseEntity position(@PathVariable Long courseId, @RequestParam String studentEmail) {
+        try{
+            return ResponseEntity.ok(waitlistService.position(studentEmail, courseId));
+        }
+        catch (Exception e) {
+            return ErrorResponses.badRequest(e);
+        }
+    }
+}
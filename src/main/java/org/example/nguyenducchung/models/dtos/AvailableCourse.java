@@ -0,0 +1,24 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Khóa học chưa bắt đầu, như được giữ trong CourseAvailabilityIndex.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailableCourse {
+    private Long id;
+    private String name;
+    private Date startTime;
+    private Date endTime;
+    private Long price;
+    private Integer capacity; // null = không giới hạn số chỗ
+}
@@ -0,0 +1,17 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckoutItem {
+    private Long courseId;
+    private String courseName;
+    private Long originalPrice;
+    private Long price; // Giá thực tế sau giảm giá
+}
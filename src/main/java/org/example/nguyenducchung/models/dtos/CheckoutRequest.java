@@ -0,0 +1,17 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckoutRequest {
+    private String studentEmail;
+    private List<Long> courseIds;
+}
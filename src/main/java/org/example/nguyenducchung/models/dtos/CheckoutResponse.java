@@ -0,0 +1,19 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.nguyenducchung.models.entities.Course;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckoutResponse {
+    private List<CheckoutItem> items;
+    private Long totalPrice;
+    private List<Course> registeredCourses;
+}
@@ -0,0 +1,21 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CohortEnrollmentReport {
+    private Long courseId;
+    private int enrolled;
+    private int skipped;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private List<CohortEnrollmentResult> results;
+}
@@ -0,0 +1,18 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CohortEnrollmentResult {
+    public enum Status { ENROLLED, STUDENT_NOT_FOUND, ALREADY_REGISTERED, COURSE_FULL }
+
+    private String studentEmail;
+    private Status status;
+    private Long price; // null nếu không đăng ký
+}
@@ -0,0 +1,25 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Một sinh viên trong danh sách lớp, đọc thẳng bằng constructor projection (không nạp entity).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseRosterEntry {
+    private Long registrationId;
+    private Long studentId;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private Long price; // Giá thực tế sau giảm giá
+    private Date registeredDate;
+}
@@ -0,0 +1,16 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseSuggestion {
+    private Long id;
+    private String name;
+    private int score; // 2 điểm cho mỗi từ khớp nguyên vẹn, 1 điểm cho mỗi từ khớp tiền tố
+}
@@ -0,0 +1,23 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReport {
+    private String entity;
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long rejected;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private List<ImportRejection> rejections; // chỉ giữ tối đa registration.import.max-reported-rejections dòng đầu
+}
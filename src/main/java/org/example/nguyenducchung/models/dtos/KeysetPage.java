@@ -0,0 +1,20 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Một trang theo keyset: trang sau lấy bằng afterId = nextAfterId; nextAfterId null nghĩa là đã hết.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeysetPage<T> {
+    private List<T> items;
+    private Long nextAfterId;
+}
@@ -0,0 +1,19 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuoteItem {
+    private Long courseId;
+    private String courseName;
+    private Long originalPrice;
+    private int percentOff;
+    private String discountRule; // null nếu không được giảm
+    private Long price;
+}
@@ -0,0 +1,21 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegistrationTicket {
+    public enum Status { PENDING, REGISTERED, REJECTED, FAILED } // FAILED: lỗi phía server, có thể gửi lại
+
+    private String ticketId;
+    private String studentEmail;
+    private Long courseId;
+    private Status status;
+    private Long price; // giá sau giảm; null nếu chưa/không đăng ký hoặc lô được xử lý lại từng yêu cầu
+    private String error; // lý do nếu REJECTED/FAILED
+}
@@ -0,0 +1,24 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Một đăng ký của sinh viên, đọc thẳng bằng constructor projection (không nạp entity).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentRegistrationView {
+    private Long registrationId;
+    private Long courseId;
+    private String courseName;
+    private Date courseStartTime;
+    private Long price; // Giá thực tế sau giảm giá
+    private Date registeredDate;
+}
@@ -0,0 +1,17 @@
+package org.example.nguyenducchung.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitlistPosition {
+    private Long courseId;
+    private String studentEmail;
+    private int position; // 1 = được chuyển lên đầu tiên khi có chỗ trống
+    private int waitlistSize;
+}
@@ -6,6 +6,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.nguyenducchung.configs.HibernateCacheConfig;
+import org.example.nguyenducchung.services.CourseIndexListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Date;
 import java.util.List;
@@ -15,6 +19,9 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.COURSE_REGION)
+@EntityListeners(CourseIndexListener.class)
 public class Course {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,6 +31,7 @@ public class Course {
     private Date startTime;
     private Date endTime;
     private Long price;
+    private Integer capacity; // null = không giới hạn số chỗ
 
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL)
     @JsonIgnore
@@ -0,0 +1,39 @@
+package org.example.nguyenducchung.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bảng tóm tắt đăng ký của từng sinh viên, được cập nhật cùng transaction với việc thêm/xóa
+ * Registration để không phải quét toàn bộ lịch sử đăng ký mỗi lần.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class StudentEnrollmentSummary {
+    @Id
+    private Long studentId;
+
+    private int registrationCount;
+
+    // lockSummaries khóa nhiều summary một lúc: nạp courseIds của tối đa 100 summary trong một câu
+    // thay vì mỗi summary một câu
+    @ElementCollection
+    @BatchSize(size = 100)
+    @CollectionTable(name = "student_enrollment_summary_course", joinColumns = @JoinColumn(name = "student_id"))
+    @Column(name = "course_id")
+    @Builder.Default
+    private Set<Long> courseIds = new HashSet<>();
+
+    @Version
+    private Long version;
+}
@@ -1,15 +1,54 @@
 package org.example.nguyenducchung.repositories;
 
+import org.example.nguyenducchung.models.dtos.CourseRosterEntry;
+import org.example.nguyenducchung.models.dtos.StudentRegistrationView;
+import org.example.nguyenducchung.models.entities.Course;
 import org.example.nguyenducchung.models.entities.Registration;
 import org.example.nguyenducchung.models.entities.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 public interface RegistrationRepository extends JpaRepository<Registration, Long> {
     List<Registration> findByStudentAndCourseStartTimeAfter(Student student, Date date);
-    void deleteByStudentEmailAndCourseId(String email, Long courseId);
-    List<Registration> findByStudentId(Long studentId);
+
+    // Truy vấn dẫn xuất từ tên (findByStudentId...) sinh LEFT JOIN student rồi lọc trên s.id, khiến DB
+    // quét cả bảng registration; so sánh thẳng trên khóa ngoại để dùng index (student_id, course_id)
+    @Query("select r from Registration r where r.student.id = :studentId")
+    List<Registration> findByStudentId(@Param("studentId") Long studentId);
+
+    // Khóa học đã đăng ký theo thứ tự đăng ký
+    @Query("select r.course from Registration r where r.student.id = :studentId order by r.id")
+    List<Course> findRegisteredCourses(@Param("studentId") Long studentId);
+
+    @Query("select r from Registration r where r.student.id = :studentId and r.course.id = :courseId")
+    Optional<Registration> findByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    // Mỗi phần tử: [studentId, courseId]
+    @Query("select r.student.id, r.course.id from Registration r where r.student.id in :studentIds")
+    List<Object[]> findCourseIdsByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
+    // Keyset theo r.id: chỉ đọc các cột cần hiển thị, không nạp Registration/Student/Course
+    @Query("""
+            select new org.example.nguyenducchung.models.dtos.StudentRegistrationView(
+                r.id, c.id, c.name, c.startTime, r.price, r.registeredDate)
+            from Registration r join r.course c
+            where r.student.id = :studentId and r.id > :afterId
+            order by r.id""")
+    List<StudentRegistrationView> findStudentRegistrations(@Param("studentId") Long studentId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("""
+            select new org.example.nguyenducchung.models.dtos.CourseRosterEntry(
+                r.id, s.id, s.email, s.firstName, s.lastName, r.price, r.registeredDate)
+            from Registration r join r.student s
+            where r.course.id = :courseId and r.id > :afterId
+            order by r.id""")
+    List<CourseRosterEntry> findCourseRoster(@Param("courseId") Long courseId, @Param("afterId") Long afterId, Limit limit);
 
 }
@@ -0,0 +1,22 @@
+package org.example.nguyenducchung.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.example.nguyenducchung.models.entities.StudentEnrollmentSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StudentEnrollmentSummaryRepository extends JpaRepository<StudentEnrollmentSummary, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StudentEnrollmentSummary s where s.studentId = :studentId")
+    Optional<StudentEnrollmentSummary> findForUpdate(@Param("studentId") Long studentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from StudentEnrollmentSummary s where s.studentId in :studentIds")
+    List<StudentEnrollmentSummary> findAllForUpdate(@Param("studentIds") Collection<Long> studentIds);
+}
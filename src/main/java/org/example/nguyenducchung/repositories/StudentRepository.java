@@ -1,8 +1,34 @@
 package org.example.nguyenducchung.repositories;
 
+import org.example.nguyenducchung.configs.CacheConfig;
 import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.services.StudentCacheListener;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * findByEmail được cache theo email (cả email chưa có sinh viên). Thêm/sửa/xóa Student xóa cache sau khi
+ * transaction commit qua {@link StudentCacheListener}; các lệnh xóa bulk không đi qua listener nên xóa
+ * toàn bộ cache ngay khi chạy (chỉ dùng để dọn dữ liệu).
+ */
 public interface StudentRepository extends JpaRepository<Student, Long> {
+    @Cacheable(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, key = "#p0", sync = true)
     Student findByEmail(String email);
+    List<Student> findByEmailIn(Collection<String> emails);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, allEntries = true)
+    void deleteAllInBatch(Iterable<Student> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, allEntries = true)
+    void deleteAllInBatch();
 }
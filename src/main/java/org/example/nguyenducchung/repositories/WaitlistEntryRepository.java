@@ -0,0 +1,15 @@
+package org.example.nguyenducchung.repositories;
+
+import org.example.nguyenducchung.models.entities.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    boolean existsByCourseIdAndStudentId(Long courseId, Long studentId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.courseId = :courseId and w.studentId = :studentId")
+    int deleteByCourseIdAndStudentId(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+}
@@ -0,0 +1,264 @@
+package org.example.nguyenducchung.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.nguyenducchung.configs.CacheConfig;
+import org.example.nguyenducchung.models.dtos.ImportRejection;
+import org.example.nguyenducchung.models.dtos.ImportReport;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Nạp sinh viên và khóa học từ file CSV đầu kỳ.
+ * <p>
+ * File được đọc bằng {@link CsvChannelReader} (dòng đầu là header). Mỗi dòng hợp lệ được gom vào lô
+ * registration.import.batch-size dòng; mỗi lô là một transaction: một câu SELECT tìm bản ghi đã có theo
+ * khóa tự nhiên (email của sinh viên; tên + thời gian bắt đầu của khóa học), rồi một JDBC batch UPDATE
+ * và một JDBC batch INSERT. Dòng trùng khóa trong cùng file: dòng sau ghi đè dòng trước.
+ * <p>
+ * Dữ liệu được ghi thẳng bằng JDBC nên cache studentsByEmail và second-level cache của Student/Course
+ * bị xóa sau mỗi lần import, và {@link CourseAvailabilityIndex}, {@link CourseSearchIndex} được nạp lại sau khi import khóa học.
+ * <ul>
+ *     <li>students: email,firstName,lastName</li>
+ *     <li>courses: name,startTime,endTime,price (thời gian dạng yyyy-MM-dd[ HH:mm[:ss]])</li>
+ * </ul>
+ */
+@Service
+public class BulkImportService {
+    public static final String STUDENTS = "students";
+    public static final String COURSES = "courses";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CourseAvailabilityIndex courseAvailabilityIndex;
+    private final CourseSearchIndex courseSearchIndex;
+
+    @Value("${registration.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${registration.import.max-reported-rejections:100}")
+    private int maxReportedRejections = 100;
+
+    public BulkImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             CacheManager cacheManager, EntityManagerFactory entityManagerFactory,
+                             CourseAvailabilityIndex courseAvailabilityIndex, CourseSearchIndex courseSearchIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.courseAvailabilityIndex = courseAvailabilityIndex;
+        this.courseSearchIndex = courseSearchIndex;
+    }
+
+    public ImportReport importStudents(ReadableByteChannel channel) throws IOException {
+        Progress progress = new Progress(STUDENTS);
+        CsvChannelReader reader = new CsvChannelReader(channel);
+        Map<String, StudentRow> batch = new LinkedHashMap<>();
+        try {
+            reader.next(); // header
+            while (reader.next()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+                progress.rowsRead++;
+                if (!reader.isEmail(0)) {
+                    progress.reject(reader.lineNumber(), "Invalid email");
+                    continue;
+                }
+                String email = reader.string(0);
+                batch.put(email, new StudentRow(email, reader.string(1), reader.string(2)));
+                if (batch.size() >= batchSize) {
+                    writeStudents(batch, progress);
+                }
+            }
+            writeStudents(batch, progress);
+        }
+        finally {
+            evictCaches();
+        }
+        return progress.report();
+    }
+
+    public ImportReport importCourses(ReadableByteChannel channel) throws IOException {
+        Progress progress = new Progress(COURSES);
+        CsvChannelReader reader = new CsvChannelReader(channel);
+        Map<CourseKey, CourseRow> batch = new LinkedHashMap<>();
+        try {
+            reader.next(); // header
+            while (reader.next()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+                progress.rowsRead++;
+                if (reader.isEmpty(0)) {
+                    progress.reject(reader.lineNumber(), "Missing course name");
+                    continue;
+                }
+                LocalDateTime startTime = reader.dateTime(1);
+                LocalDateTime endTime = reader.dateTime(2);
+                if (startTime == null || endTime == null) {
+                    progress.reject(reader.lineNumber(), "Invalid start or end time");
+                    continue;
+                }
+                if (!endTime.isAfter(startTime)) {
+                    progress.reject(reader.lineNumber(), "End time must be after start time");
+                    continue;
+                }
+                long price = reader.nonNegativeLong(3);
+                if (price < 0) {
+                    progress.reject(reader.lineNumber(), "Invalid price");
+                    continue;
+                }
+                CourseKey key = new CourseKey(reader.string(0), startTime);
+                batch.put(key, new CourseRow(key, endTime, price));
+                if (batch.size() >= batchSize) {
+                    writeCourses(batch, progress);
+                }
+            }
+            writeCourses(batch, progress);
+        }
+        finally {
+            evictCaches();
+            courseAvailabilityIndex.reload();
+            courseSearchIndex.reload();
+        }
+        return progress.report();
+    }
+
+    private void writeStudents(Map<String, StudentRow> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Long> existing = new HashMap<>();
+            namedJdbcTemplate.query("select id, email from student where email in (:emails)",
+                    new MapSqlParameterSource("emails", batch.keySet()),
+                    row -> {
+                        existing.put(row.getString("email"), row.getLong("id"));
+                    });
+
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            for (StudentRow row : batch.values()) {
+                Long id = existing.get(row.email());
+                if (id != null) {
+                    updates.add(new Object[]{row.firstName(), row.lastName(), id});
+                }
+                else {
+                    inserts.add(new Object[]{row.email(), row.firstName(), row.lastName()});
+                }
+            }
+            jdbcTemplate.batchUpdate("update student set first_name = ?, last_name = ? where id = ?", updates);
+            jdbcTemplate.batchUpdate("insert into student (email, first_name, last_name) values (?, ?, ?)", inserts);
+            progress.updated += updates.size();
+            progress.inserted += inserts.size();
+        });
+        batch.clear();
+    }
+
+    private void writeCourses(Map<CourseKey, CourseRow> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> names = new HashSet<>();
+            batch.keySet().forEach(key -> names.add(key.name()));
+            Map<CourseKey, Long> existing = new HashMap<>();
+            namedJdbcTemplate.query("select id, name, start_time from course where name in (:names)",
+                    new MapSqlParameterSource("names", names),
+                    row -> {
+                        existing.put(new CourseKey(row.getString("name"), row.getTimestamp("start_time").toLocalDateTime()),
+                                row.getLong("id"));
+                    });
+
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            for (CourseRow row : batch.values()) {
+                Long id = existing.get(row.key());
+                if (id != null) {
+                    updates.add(new Object[]{Timestamp.valueOf(row.endTime()), row.price(), id});
+                }
+                else {
+                    inserts.add(new Object[]{row.key().name(), Timestamp.valueOf(row.key().startTime()),
+                            Timestamp.valueOf(row.endTime()), row.price()});
+                }
+            }
+            jdbcTemplate.batchUpdate("update course set end_time = ?, price = ? where id = ?", updates);
+            jdbcTemplate.batchUpdate("insert into course (name, start_time, end_time, price) values (?, ?, ?, ?)", inserts);
+            progress.updated += updates.size();
+            progress.inserted += inserts.size();
+        });
+        batch.clear();
+    }
+
+    private void evictCaches() {
+        Cache studentsByEmail = cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL);
+        if (studentsByEmail != null) {
+            studentsByEmail.clear();
+        }
+        entityManagerFactory.getCache().evict(Student.class);
+        entityManagerFactory.getCache().evict(Course.class);
+    }
+
+    private record StudentRow(String email, String firstName, String lastName) {
+    }
+
+    private record CourseKey(String name, LocalDateTime startTime) {
+    }
+
+    private record CourseRow(CourseKey key, LocalDateTime endTime, long price) {
+    }
+
+    private class Progress {
+        private final String entity;
+        private final long startedAt = System.nanoTime();
+        private final List<ImportRejection> rejections = new ArrayList<>();
+        private long rowsRead;
+        private long inserted;
+        private long updated;
+        private long rejected;
+
+        Progress(String entity) {
+            this.entity = entity;
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new ImportRejection(line, reason));
+            }
+        }
+
+        ImportReport report() {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            return ImportReport.builder()
+                    .entity(entity)
+                    .rowsRead(rowsRead)
+                    .inserted(inserted)
+                    .updated(updated)
+                    .rejected(rejected)
+                    .elapsedMillis(elapsedNanos / 1_000_000)
+                    .rowsPerSecond(elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000L / elapsedNanos)
+                    .rejections(rejections)
+                    .build();
+        }
+    }
+}
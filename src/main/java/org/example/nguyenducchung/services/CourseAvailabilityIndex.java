@@ -0,0 +1,154 @@
+package org.example.nguyenducchung.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.dtos.AvailableCourse;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Các khóa học chưa bắt đầu, sắp theo startTime trong một ConcurrentSkipListMap: tìm theo khoảng thời
+ * gian là một lần cắt dải trên map, không truy vấn DB.
+ * <p>
+ * Index được nạp lúc khởi động, cập nhật từng khóa học khi Course được lưu/xóa qua JPA
+ * ({@link CourseIndexListener}, sau commit) và nạp lại sau khi import CSV. Khóa học đã bắt đầu
+ * không bao giờ được trả về và bị loại khỏi đầu map ở lần tìm kiếm kế tiếp.
+ */
+@Slf4j
+@Service
+public class CourseAvailabilityIndex implements SmartInitializingSingleton {
+    public static final int MAX_RESULTS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Index index = new Index();
+
+    public CourseAvailabilityIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Nạp lại toàn bộ khóa học chưa bắt đầu từ DB (sau khi course bị ghi thẳng bằng JDBC).
+     * Index mới được dựng riêng rồi thay cho index cũ trong một lần gán: tìm kiếm đồng thời thấy index cũ
+     * hoặc index mới đầy đủ, không bao giờ thấy index đang bị xóa dở. {@link #put}/{@link #remove} chờ
+     * reload xong, nên thay đổi commit trong lúc nạp không bị mất khi đổi index.
+     */
+    public synchronized void reload() {
+        List<AvailableCourse> courses = jdbcTemplate.query(
+                "select id, name, start_time, end_time, price, capacity from course where start_time > ?",
+                (row, rowNum) -> AvailableCourse.builder()
+                        .id(row.getLong("id"))
+                        .name(row.getString("name"))
+                        .startTime(toDate(row.getTimestamp("start_time")))
+                        .endTime(toDate(row.getTimestamp("end_time")))
+                        .price(row.getObject("price", Long.class))
+                        .capacity(row.getObject("capacity", Integer.class))
+                        .build(),
+                new Timestamp(System.currentTimeMillis()));
+        Index loaded = new Index();
+        courses.forEach(loaded::put);
+        index = loaded;
+        log.info("Course availability index loaded with {} upcoming courses", courses.size());
+    }
+
+    public synchronized void remove(Long courseId) {
+        index.remove(courseId);
+    }
+
+    /**
+     * Khóa học có startTime trong [from, to) (không giới hạn nếu null, nhưng luôn sau thời điểm hiện
+     * tại) và giá trong [minPrice, maxPrice], theo thứ tự startTime, tối đa limit kết quả.
+     */
+    public List<AvailableCourse> search(Date from, Date to, Long minPrice, Long maxPrice, int limit) {
+        long now = System.currentTimeMillis();
+        Index current = index;
+        current.expire(now);
+
+        long lower = from == null ? now : Math.max(from.getTime(), now);
+        Map<Key, AvailableCourse> window = to == null
+                ? current.byStartTime.tailMap(new Key(lower, Long.MIN_VALUE), true)
+                : current.byStartTime.subMap(new Key(lower, Long.MIN_VALUE), true, new Key(to.getTime(), Long.MIN_VALUE), false);
+
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        List<AvailableCourse> results = new ArrayList<>(Math.min(max, 16));
+        for (AvailableCourse course : window.values()) {
+            if (results.size() == max) {
+                break;
+            }
+            Long price = course.getPrice();
+            if ((minPrice == null || (price != null && price >= minPrice))
+                    && (maxPrice == null || (price != null && price <= maxPrice))) {
+                results.add(course);
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return index.keys.size();
+    }
+
+    public synchronized void put(AvailableCourse course) {
+        index.put(course);
+    }
+
+    private static Date toDate(Timestamp timestamp) {
+        return timestamp == null ? null : new Date(timestamp.getTime());
+    }
+
+    // Hai map luôn được thay cùng nhau: keys giữ Key hiện tại của mỗi khóa học trong byStartTime
+    private static class Index {
+        private final ConcurrentSkipListMap<Key, AvailableCourse> byStartTime = new ConcurrentSkipListMap<>();
+        private final Map<Long, Key> keys = new ConcurrentHashMap<>();
+
+        void put(AvailableCourse course) {
+            keys.compute(course.getId(), (id, previous) -> {
+                if (previous != null) {
+                    byStartTime.remove(previous);
+                }
+                if (course.getStartTime() == null || course.getStartTime().getTime() <= System.currentTimeMillis()) {
+                    return null;
+                }
+                Key key = new Key(course.getStartTime().getTime(), id);
+                byStartTime.put(key, course);
+                return key;
+            });
+        }
+
+        void remove(Long courseId) {
+            keys.computeIfPresent(courseId, (id, key) -> {
+                byStartTime.remove(key);
+                return null;
+            });
+        }
+
+        void expire(long now) {
+            Map.Entry<Key, AvailableCourse> first;
+            while ((first = byStartTime.firstEntry()) != null && first.getKey().startTime() < now) {
+                Key started = first.getKey();
+                keys.computeIfPresent(started.courseId(), (id, key) -> key.equals(started) ? null : key);
+                byStartTime.remove(started);
+            }
+        }
+    }
+
+    private record Key(long startTime, long courseId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Long.compare(startTime, other.startTime);
+            return byTime != 0 ? byTime : Long.compare(courseId, other.courseId);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.nguyenducchung.services;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.example.nguyenducchung.models.dtos.AvailableCourse;
+import org.example.nguyenducchung.models.entities.Course;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener của {@link Course} (Hibernate lấy bean từ Spring): đưa thay đổi vào
+ * {@link CourseAvailabilityIndex} và {@link CourseSearchIndex} sau khi transaction commit. Câu lệnh bulk (deleteAllInBatch, JDBC)
+ * không đi qua listener.
+ */
+@Component
+public class CourseIndexListener {
+    private final CourseAvailabilityIndex courseAvailabilityIndex;
+    private final CourseSearchIndex courseSearchIndex;
+
+    public CourseIndexListener(CourseAvailabilityIndex courseAvailabilityIndex, CourseSearchIndex courseSearchIndex) {
+        this.courseAvailabilityIndex = courseAvailabilityIndex;
+        this.courseSearchIndex = courseSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Course course) {
+        // Chụp lại giá trị lúc ghi, entity có thể còn bị sửa trước khi commit xong
+        AvailableCourse snapshot = AvailableCourse.builder()
+                .id(course.getId())
+                .name(course.getName())
+                .startTime(course.getStartTime())
+                .endTime(course.getEndTime())
+                .price(course.getPrice())
+                .capacity(course.getCapacity())
+                .build();
+        afterCommit(() -> {
+            courseAvailabilityIndex.put(snapshot);
+            courseSearchIndex.put(snapshot.getId(), snapshot.getName());
+        });
+    }
+
+    @PostRemove
+    public void removed(Course course) {
+        Long courseId = course.getId();
+        afterCommit(() -> {
+            courseAvailabilityIndex.remove(courseId);
+            courseSearchIndex.remove(courseId);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
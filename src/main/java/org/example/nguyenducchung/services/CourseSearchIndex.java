@@ -0,0 +1,399 @@
+package org.example.nguyenducchung.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.dtos.CourseSuggestion;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Tìm khóa học theo tên trong bộ nhớ: tên được tách từ và bỏ dấu ("Lập trình Đà Nẵng" thành
+ * lap, trinh, da, nang), mỗi từ trỏ tới danh sách id khóa học (inverted index) và các từ được xếp vào
+ * một cây tiền tố (trie) để gợi ý khi người dùng mới gõ một phần từ.
+ * <p>
+ * Mỗi từ trong câu tìm phải khớp (nguyên vẹn hoặc là tiền tố) một từ trong tên. Kết quả xếp theo điểm
+ * (2 cho từ khớp nguyên vẹn, 1 cho khớp tiền tố), rồi tên ngắn hơn, rồi id. Từ có ít khóa học nhất
+ * (theo bộ đếm trên nút trie) được dùng để lấy ứng viên, các từ còn lại chỉ kiểm tra trên ứng viên.
+ * Danh sách khóa học trên mỗi nút xếp sẵn theo độ dài tên nên thường chỉ cần xét vài chục ứng viên
+ * đầu tiên thay vì mọi khóa học có từ đó.
+ * <p>
+ * Cập nhật từng khóa học sau commit qua {@link CourseIndexListener} và nạp lại sau khi import CSV,
+ * như {@link CourseAvailabilityIndex}: index mới được dựng riêng rồi thay index cũ trong một lần gán,
+ * nên tìm kiếm chỉ chờ lúc đổi index chứ không chờ cả lần nạp.
+ */
+@Slf4j
+@Service
+public class CourseSearchIndex implements SmartInitializingSingleton {
+    public static final int MAX_RESULTS = 50;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<IndexedCourse> BY_NAME_LENGTH = Comparator
+            .comparingInt((IndexedCourse course) -> course.name.length())
+            .thenComparingLong(course -> course.id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+
+    public CourseSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * {@link #put}/{@link #remove} chờ cả lần nạp (kể cả câu truy vấn), nên thay đổi commit trong lúc nạp
+     * không bị dữ liệu cũ ghi đè khi đổi index.
+     */
+    public synchronized void reload() {
+        Index loaded = new Index();
+        jdbcTemplate.query("select id, name from course", row -> {
+            loaded.index(row.getLong(1), row.getString(2));
+        });
+        lock.writeLock().lock();
+        try {
+            index = loaded;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Course search index loaded with {} courses", loaded.courses.size());
+    }
+
+    public synchronized void put(Long courseId, String name) {
+        lock.writeLock().lock();
+        try {
+            index.unindex(courseId);
+            index.index(courseId, name);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void remove(Long courseId) {
+        lock.writeLock().lock();
+        try {
+            index.unindex(courseId);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<CourseSuggestion> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        lock.readLock().lock();
+        try {
+            // Từ hiếm nhất quyết định tập ứng viên
+            TrieNode driver = null;
+            int driverIndex = -1;
+            TrieNode[] nodes = new TrieNode[terms.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = index.find(terms.get(i));
+                if (nodes[i] == null) {
+                    return List.of();
+                }
+                if (driver == null || nodes[i].courseCount < driver.courseCount) {
+                    driver = nodes[i];
+                    driverIndex = i;
+                }
+            }
+            // Điểm tối đa các từ còn lại có thể đóng góp: 2 chỉ khi từ đó có khóa học khớp nguyên vẹn
+            int otherTermsBound = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                if (i != driverIndex) {
+                    otherTermsBound += nodes[i].courses != null ? 2 : 1;
+                }
+            }
+
+            TopResults top = new TopResults(max);
+            if (driver.courses != null) {
+                collect(driver.courses.iterator(), 2 + otherTermsBound, terms, top);
+            }
+            if (!top.isSettled(1 + otherTermsBound)) {
+                List<Iterator<IndexedCourse>> postings = new ArrayList<>();
+                Deque<TrieNode> pending = new ArrayDeque<>(driver.children.values());
+                while (!pending.isEmpty()) {
+                    TrieNode node = pending.pop();
+                    pending.addAll(node.children.values());
+                    if (node.courses != null) {
+                        postings.add(node.courses.iterator());
+                    }
+                }
+                collect(new MergedPostings(postings), 1 + otherTermsBound, terms, top);
+            }
+            return top.toSuggestions();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.courses.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Chữ thường, bỏ dấu tiếng Việt (kể cả đ), tách theo ký tự không phải chữ/số.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Ứng viên đến theo thứ tự tên ngắn trước nên có thể dừng khi ngay cả điểm tối đa của nhóm cũng
+     * không đủ để vượt kết quả cuối cùng đang giữ.
+     */
+    private static void collect(Iterator<IndexedCourse> candidates, int bestPossible, List<String> terms, TopResults top) {
+        while (candidates.hasNext()) {
+            IndexedCourse course = candidates.next();
+            if (!top.accepts(course, bestPossible)) {
+                return;
+            }
+            int score = score(course.terms, terms);
+            if (score > 0) {
+                top.offer(course, score);
+            }
+        }
+    }
+
+    // 0 nếu có từ trong câu tìm không khớp từ nào trong tên
+    private static int score(String[] courseTerms, List<String> queryTerms) {
+        int score = 0;
+        for (String queryTerm : queryTerms) {
+            int best = 0;
+            for (String courseTerm : courseTerms) {
+                if (courseTerm.equals(queryTerm)) {
+                    best = 2;
+                    break;
+                }
+                if (courseTerm.startsWith(queryTerm)) {
+                    best = 1;
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    // Cây tiền tố và bảng khóa học luôn được thay cùng nhau
+    private static final class Index {
+        private final Map<Long, IndexedCourse> courses = new HashMap<>();
+        private final TrieNode root = new TrieNode();
+
+        void index(Long courseId, String name) {
+            if (name == null) {
+                return;
+            }
+            IndexedCourse course = new IndexedCourse(courseId, name, new LinkedHashSet<>(tokenize(name)).toArray(String[]::new));
+            courses.put(courseId, course);
+            for (String term : course.terms) {
+                TrieNode node = root;
+                node.courseCount++;
+                for (int i = 0; i < term.length(); i++) {
+                    node = node.children.computeIfAbsent(term.charAt(i), c -> new TrieNode());
+                    node.courseCount++;
+                }
+                if (node.courses == null) {
+                    node.courses = new TreeSet<>(BY_NAME_LENGTH);
+                }
+                node.courses.add(course);
+            }
+        }
+
+        void unindex(Long courseId) {
+            IndexedCourse course = courses.remove(courseId);
+            if (course == null) {
+                return;
+            }
+            for (String term : course.terms) {
+                TrieNode node = root;
+                node.courseCount--;
+                for (int i = 0; i < term.length() && node != null; i++) {
+                    TrieNode child = node.children.get(term.charAt(i));
+                    if (--child.courseCount == 0) {
+                        // Nhánh không còn khóa học nào: bỏ cả nhánh
+                        node.children.remove(term.charAt(i));
+                        child = null;
+                    }
+                    node = child;
+                }
+                if (node != null && node.courses.remove(course) && node.courses.isEmpty()) {
+                    node.courses = null;
+                }
+            }
+        }
+
+        TrieNode find(String prefix) {
+            TrieNode node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+    }
+
+    // So sánh theo identity: mỗi khóa học chỉ có một IndexedCourse trong index
+    private static final class IndexedCourse {
+        private final long id;
+        private final String name;
+        private final String[] terms;
+
+        private IndexedCourse(long id, String name, String[] terms) {
+            this.id = id;
+            this.name = name;
+            this.terms = terms;
+        }
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private NavigableSet<IndexedCourse> courses; // khóa học có đúng từ kết thúc ở nút này, tên ngắn trước
+        private int courseCount;                     // số cặp (từ, khóa học) trong cả nhánh
+    }
+
+    // Trộn các danh sách khóa học của những nút con, giữ thứ tự tên ngắn trước
+    private static final class MergedPostings implements Iterator<IndexedCourse> {
+        private final PriorityQueue<Cursor> cursors = new PriorityQueue<>(
+                Comparator.comparing((Cursor cursor) -> cursor.head, BY_NAME_LENGTH));
+
+        private MergedPostings(List<Iterator<IndexedCourse>> postings) {
+            for (Iterator<IndexedCourse> posting : postings) {
+                if (posting.hasNext()) {
+                    cursors.add(new Cursor(posting));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public IndexedCourse next() {
+            Cursor cursor = cursors.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            IndexedCourse course = cursor.head;
+            if (cursor.rest.hasNext()) {
+                cursor.head = cursor.rest.next();
+                cursors.add(cursor);
+            }
+            return course;
+        }
+
+        private static final class Cursor {
+            private final Iterator<IndexedCourse> rest;
+            private IndexedCourse head;
+
+            private Cursor(Iterator<IndexedCourse> rest) {
+                this.rest = rest;
+                this.head = rest.next();
+            }
+        }
+    }
+
+    /**
+     * limit kết quả tốt nhất, giữ theo thứ tự xếp hạng; ứng viên kém hơn kết quả cuối bị bỏ mà không
+     * tạo object. Một khóa học có thể được gặp lại qua từ khác cùng tiền tố, khi đó nó có cùng điểm.
+     */
+    private static final class TopResults {
+        private final IndexedCourse[] courses;
+        private final int[] scores;
+        private int size;
+
+        private TopResults(int limit) {
+            this.courses = new IndexedCourse[limit];
+            this.scores = new int[limit];
+        }
+
+        // Khóa học này, nếu đạt điểm score, có lọt vào kết quả không
+        private boolean accepts(IndexedCourse course, int score) {
+            return size < courses.length || better(course, score, courses[size - 1], scores[size - 1]);
+        }
+
+        // Đã đủ kết quả và không ứng viên nào có điểm tối đa là score có thể chen vào
+        private boolean isSettled(int score) {
+            return size == courses.length && scores[size - 1] > score;
+        }
+
+        private void offer(IndexedCourse course, int score) {
+            if (!accepts(course, score)) {
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                if (courses[i] == course) {
+                    return;
+                }
+            }
+            int position = Math.min(size, courses.length - 1);
+            while (position > 0 && better(course, score, courses[position - 1], scores[position - 1])) {
+                courses[position] = courses[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            courses[position] = course;
+            scores[position] = score;
+            size = Math.min(size + 1, courses.length);
+        }
+
+        // Điểm cao hơn, rồi tên ngắn hơn, rồi id nhỏ hơn
+        private static boolean better(IndexedCourse a, int scoreA, IndexedCourse b, int scoreB) {
+            if (scoreA != scoreB) {
+                return scoreA > scoreB;
+            }
+            if (a.name.length() != b.name.length()) {
+                return a.name.length() < b.name.length();
+            }
+            return a.id < b.id;
+        }
+
+        private List<CourseSuggestion> toSuggestions() {
+            List<CourseSuggestion> suggestions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                suggestions.add(new CourseSuggestion(courses[i].id, courses[i].name, scores[i]));
+            }
+            return suggestions;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package org.example.nguyenducchung.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Đọc CSV (RFC 4180, UTF-8) từ một {@link ReadableByteChannel} qua một ByteBuffer cố định.
+ * <p>
+ * Mỗi bản ghi được chép vào một mảng byte dùng lại giữa các dòng, chỉ lưu vị trí đầu/cuối của từng
+ * trường; số, ngày và email được kiểm tra/parse thẳng trên byte, String chỉ được tạo khi cần lấy giá
+ * trị ({@link #string}). Khoảng trắng đầu/cuối của trường bị bỏ.
+ */
+final class CsvChannelReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] input = buffer.array();
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    private byte[] record = new byte[256];
+    private int recordLength;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount;
+    private long lineNumber;
+
+    CsvChannelReader(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Đọc bản ghi tiếp theo; false khi đã hết dữ liệu.
+     */
+    boolean next() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+        boolean quoteClosed = false;
+        boolean any = false;
+
+        while (true) {
+            if (position >= limit && !fill()) {
+                if (!any) {
+                    return false;
+                }
+                endField(fieldStart);
+                lineNumber++;
+                return true;
+            }
+            byte b = input[position++];
+            any = true;
+            if (inQuotes) {
+                if (b == '"') {
+                    inQuotes = false;
+                    quoteClosed = true;
+                }
+                else {
+                    append(b);
+                }
+                continue;
+            }
+            if (b == '"') {
+                // "" trong trường có dấu nháy là một dấu nháy
+                if (quoteClosed) {
+                    append(b);
+                }
+                inQuotes = true;
+                quoteClosed = false;
+                continue;
+            }
+            quoteClosed = false;
+            if (b == ',') {
+                endField(fieldStart);
+                fieldStart = recordLength;
+            }
+            else if (b == '\n') {
+                endField(fieldStart);
+                lineNumber++;
+                return true;
+            }
+            else if (b != '\r') {
+                append(b);
+            }
+        }
+    }
+
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    boolean isBlank() {
+        return fieldCount == 1 && ends[0] == starts[0];
+    }
+
+    boolean isEmpty(int field) {
+        return field >= fieldCount || ends[field] == starts[field];
+    }
+
+    String string(int field) {
+        if (isEmpty(field)) {
+            return null;
+        }
+        return new String(record, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Email hợp lệ: đúng một '@', phần trước và sau không rỗng, tên miền có '.' và không có khoảng trắng.
+     */
+    boolean isEmail(int field) {
+        if (isEmpty(field)) {
+            return false;
+        }
+        int start = starts[field];
+        int end = ends[field];
+        int at = -1;
+        int lastDot = -1;
+        for (int i = start; i < end; i++) {
+            byte b = record[i];
+            if (b <= ' ' || b == ',' || b == '"') {
+                return false;
+            }
+            if (b == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            }
+            else if (b == '.' && at >= 0) {
+                lastDot = i;
+            }
+        }
+        return at > start && lastDot > at + 1 && lastDot < end - 1;
+    }
+
+    /**
+     * Số nguyên không âm; -1 nếu trường rỗng, không phải số hoặc tràn long.
+     */
+    long nonNegativeLong(int field) {
+        if (isEmpty(field)) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = starts[field]; i < ends[field]; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * yyyy-MM-dd, yyyy-MM-dd HH:mm hoặc yyyy-MM-dd HH:mm:ss ('T' thay cho khoảng trắng cũng được);
+     * null nếu sai định dạng hoặc ngày không tồn tại.
+     */
+    LocalDateTime dateTime(int field) {
+        if (isEmpty(field)) {
+            return null;
+        }
+        int start = starts[field];
+        int length = ends[field] - start;
+        if (length != 10 && length != 16 && length != 19) {
+            return null;
+        }
+        if (record[start + 4] != '-' || record[start + 7] != '-') {
+            return null;
+        }
+        int year = digits(start, 4);
+        int month = digits(start + 5, 2);
+        int day = digits(start + 8, 2);
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        if (length > 10) {
+            byte separator = record[start + 10];
+            if ((separator != ' ' && separator != 'T') || record[start + 13] != ':') {
+                return null;
+            }
+            hour = digits(start + 11, 2);
+            minute = digits(start + 14, 2);
+            if (length == 19) {
+                if (record[start + 16] != ':') {
+                    return null;
+                }
+                second = digits(start + 17, 2);
+            }
+        }
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        }
+        catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void append(byte b) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = b;
+    }
+
+    private void endField(int fieldStart) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        int start = fieldStart;
+        int end = recordLength;
+        while (start < end && (record[start] == ' ' || record[start] == '\t')) {
+            start++;
+        }
+        while (end > start && (record[end - 1] == ' ' || record[end - 1] == '\t')) {
+            end--;
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+}
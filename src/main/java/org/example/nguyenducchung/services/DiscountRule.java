@@ -0,0 +1,24 @@
+package org.example.nguyenducchung.services;
+
+import org.example.nguyenducchung.models.entities.Course;
+
+/**
+ * Một luật giảm giá của {@link PricingEngine}. Ngoài các luật có sẵn trong {@link DiscountRules}, mọi bean
+ * DiscountRule đều được engine nạp (theo thứ tự @Order). Luật không truy cập DB: mọi dữ liệu cần dùng
+ * nằm trong {@link Course} và {@link PricingContext}.
+ */
+public interface DiscountRule {
+    String name();
+
+    /**
+     * Phần trăm giảm (0..100), 0 nếu luật không áp dụng cho dòng này.
+     */
+    int percentOff(Course course, PricingContext context);
+
+    /**
+     * Luật không bao giờ giảm giá (ví dụ percent=0 trong cấu hình) bị bỏ khi engine dựng bộ luật.
+     */
+    default boolean isActive() {
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.nguyenducchung.services;
+
+import org.example.nguyenducchung.models.entities.Course;
+
+import java.time.Duration;
+
+/**
+ * Các luật giảm giá có sẵn, tham số lấy từ registration.pricing.* (xem
+ * {@link org.example.nguyenducchung.configs.PricingConfig}).
+ */
+public final class DiscountRules {
+    private DiscountRules() {
+    }
+
+    /**
+     * Sinh viên đã có ít nhất minPreviousRegistrations đăng ký (ví dụ 2: từ đăng ký thứ 3 trở đi).
+     */
+    public static DiscountRule registrationCount(int minPreviousRegistrations, int percent) {
+        return new RegistrationCount(minPreviousRegistrations, checkPercent(percent));
+    }
+
+    /**
+     * Giỏ có ít nhất minCourses khóa học: mọi dòng trong giỏ được giảm.
+     */
+    public static DiscountRule bundle(int minCourses, int percent) {
+        return new Bundle(minCourses, checkPercent(percent));
+    }
+
+    /**
+     * Đăng ký sớm: khóa học bắt đầu sau thời điểm tính giá ít nhất beforeStart.
+     */
+    public static DiscountRule earlyBird(Duration beforeStart, int percent) {
+        return new EarlyBird(beforeStart.toMillis(), checkPercent(percent));
+    }
+
+    private static int checkPercent(int percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Discount percent must be between 0 and 100: " + percent);
+        }
+        return percent;
+    }
+
+    private record RegistrationCount(int minPreviousRegistrations, int percent) implements DiscountRule {
+        @Override
+        public String name() {
+            return "registration-count";
+        }
+
+        @Override
+        public int percentOff(Course course, PricingContext context) {
+            return context.previousRegistrations() >= minPreviousRegistrations ? percent : 0;
+        }
+
+        @Override
+        public boolean isActive() {
+            return percent > 0;
+        }
+    }
+
+    private record Bundle(int minCourses, int percent) implements DiscountRule {
+        @Override
+        public String name() {
+            return "bundle";
+        }
+
+        @Override
+        public int percentOff(Course course, PricingContext context) {
+            return context.cartSize() >= minCourses ? percent : 0;
+        }
+
+        @Override
+        public boolean isActive() {
+            return percent > 0;
+        }
+    }
+
+    private record EarlyBird(long beforeStartMillis, int percent) implements DiscountRule {
+        @Override
+        public String name() {
+            return "early-bird";
+        }
+
+        @Override
+        public int percentOff(Course course, PricingContext context) {
+            return course.getStartTime().getTime() - context.now().getTime() >= beforeStartMillis ? percent : 0;
+        }
+
+        @Override
+        public boolean isActive() {
+            return percent > 0;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.nguyenducchung.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.models.entities.StudentEnrollmentSummary;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Duy trì {@link StudentEnrollmentSummary}: số đăng ký hiện có và tập id khóa học của từng sinh viên.
+ * <p>
+ * Các phương thức lock/record phải được gọi bên trong transaction đang thêm/xóa Registration.
+ * Summary bị khóa (PESSIMISTIC_WRITE) nên các đăng ký đồng thời của cùng một sinh viên được tuần tự hóa.
+ * Nếu sinh viên chưa có summary, nó được dựng lại từ bảng registration trong cùng transaction bằng câu insert
+ * qua JDBC; khi một transaction khác vừa tạo summary đó trước thì bỏ qua lỗi trùng khóa và khóa bản đã có.
+ * <p>
+ * Báo giá đọc summary không khóa qua {@link #snapshot}, cache theo sinh viên (Caffeine). Cache của sinh viên
+ * bị xóa khi transaction thay đổi summary commit; TTL giới hạn độ cũ khi summary bị sửa bằng đường khác
+ * (bản reactive, sửa tay trong DB).
+ */
+@Service
+public class EnrollmentSummaryService {
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final StudentEnrollmentSummaryRepository summaryRepository;
+    private final RegistrationRepository registrationRepository;
+    private final StudentRepository studentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, Snapshot> snapshots;
+
+    public EnrollmentSummaryService(StudentEnrollmentSummaryRepository summaryRepository, RegistrationRepository registrationRepository,
+                                    StudentRepository studentRepository, JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${registration.pricing.student-cache.max-size:100000}") long maxCachedStudents,
+                                    @Value("${registration.pricing.student-cache.ttl:1m}") Duration cacheTtl) {
+        this.summaryRepository = summaryRepository;
+        this.registrationRepository = registrationRepository;
+        this.studentRepository = studentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxCachedStudents)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public StudentEnrollmentSummary lockSummary(Long studentId) {
+        return summaryRepository.findForUpdate(studentId).orElseGet(() -> {
+            createSummaries(List.of(studentId));
+            return summaryRepository.findForUpdate(studentId).orElseThrow();
+        });
+    }
+
+    public Map<Long, StudentEnrollmentSummary> lockSummaries(Collection<Long> studentIds) {
+        Map<Long, StudentEnrollmentSummary> summaries = summaryRepository.findAllForUpdate(studentIds).stream()
+                .collect(Collectors.toMap(StudentEnrollmentSummary::getStudentId, Function.identity()));
+
+        List<Long> missing = studentIds.stream()
+                .filter(studentId -> !summaries.containsKey(studentId))
+                .toList();
+        if (!missing.isEmpty()) {
+            createSummaries(missing);
+            summaryRepository.findAllForUpdate(missing).forEach(summary -> summaries.put(summary.getStudentId(), summary));
+        }
+        return summaries;
+    }
+
+    public void recordRegistration(StudentEnrollmentSummary summary, Long courseId) {
+        if (summary.getCourseIds().add(courseId)) {
+            summary.setRegistrationCount(summary.getRegistrationCount() + 1);
+            evictAfterCommit(summary.getStudentId());
+        }
+    }
+
+    public void recordUnregistration(StudentEnrollmentSummary summary, Long courseId) {
+        if (summary.getCourseIds().remove(courseId)) {
+            summary.setRegistrationCount(summary.getRegistrationCount() - 1);
+            evictAfterCommit(summary.getStudentId());
+        }
+    }
+
+    /**
+     * Số đăng ký và các khóa học đã đăng ký của sinh viên, không khóa summary (dùng cho báo giá, không dùng
+     * để tính giá khi đăng ký). Sinh viên chưa có summary thì đếm từ bảng registration mà không ghi gì.
+     */
+    public Snapshot snapshot(Long studentId) {
+        return snapshots.get(studentId, id -> {
+            StudentEnrollmentSummary summary = summaryRepository.findById(id)
+                    .orElseGet(() -> buildSummaries(List.of(id)).get(id));
+            return new Snapshot(summary.getRegistrationCount(), Set.copyOf(summary.getCourseIds()));
+        });
+    }
+
+    /**
+     * Tính lại toàn bộ summary từ bảng registration (dùng để sửa dữ liệu), mỗi trang sinh viên là
+     * một transaction. Trả về số sinh viên đã được tính lại.
+     */
+    public int rebuildAll() {
+        int rebuilt = 0;
+        Slice<Student> page = studentRepository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+        while (true) {
+            List<Long> studentIds = page.getContent().stream().map(Student::getId).toList();
+            if (!studentIds.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> rebuild(studentIds));
+                snapshots.invalidateAll(studentIds);
+                rebuilt += studentIds.size();
+            }
+            if (!page.hasNext()) {
+                return rebuilt;
+            }
+            page = studentRepository.findAll(page.nextPageable());
+        }
+    }
+
+    private void rebuild(List<Long> studentIds) {
+        // Khóa trước rồi mới đếm: đăng ký commit giữa lúc đếm và lúc khóa sẽ bị ghi đè mất
+        Map<Long, StudentEnrollmentSummary> locked = lockSummaries(studentIds);
+        for (StudentEnrollmentSummary summary : buildSummaries(studentIds).values()) {
+            StudentEnrollmentSummary current = locked.get(summary.getStudentId());
+            current.getCourseIds().clear();
+            current.getCourseIds().addAll(summary.getCourseIds());
+            current.setRegistrationCount(summary.getRegistrationCount());
+        }
+    }
+
+    /**
+     * Tạo summary cho các sinh viên chưa có, đếm từ bảng registration. Dùng JDBC thay vì persist: lỗi trùng khóa
+     * khi một transaction khác tạo cùng summary trước không làm hỏng persistence context hay đánh dấu rollback
+     * transaction hiện tại, nên chỉ cần bỏ qua rồi khóa bản đã commit.
+     */
+    private void createSummaries(Collection<Long> studentIds) {
+        // Câu đếm chạy qua JDBC nên phải đẩy các Registration Hibernate đang giữ xuống DB trước
+        summaryRepository.flush();
+        for (Long studentId : studentIds) {
+            try {
+                jdbcTemplate.update("insert into student_enrollment_summary (student_id, registration_count, version) "
+                        + "select cast(? as bigint), count(*), 0 from registration where student_id = ?", studentId, studentId);
+            }
+            catch (DuplicateKeyException e) {
+                continue;
+            }
+            jdbcTemplate.update("insert into student_enrollment_summary_course (student_id, course_id) "
+                    + "select student_id, course_id from registration where student_id = ?", studentId);
+        }
+    }
+
+    private void evictAfterCommit(Long studentId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            snapshots.invalidate(studentId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshots.invalidate(studentId);
+            }
+        });
+    }
+
+    private Map<Long, StudentEnrollmentSummary> buildSummaries(Collection<Long> studentIds) {
+        Map<Long, StudentEnrollmentSummary> summaries = new HashMap<>();
+        for (Long studentId : studentIds) {
+            summaries.put(studentId, StudentEnrollmentSummary.builder().studentId(studentId).build());
+        }
+        // Summary tạm chưa được ai đọc nên không gọi recordRegistration: nó xóa snapshot đang được cache
+        for (Object[] row : registrationRepository.findCourseIdsByStudentIds(studentIds)) {
+            StudentEnrollmentSummary summary = summaries.get((Long) row[0]);
+            if (summary.getCourseIds().add((Long) row[1])) {
+                summary.setRegistrationCount(summary.getRegistrationCount() + 1);
+            }
+        }
+        return summaries;
+    }
+
+    public record Snapshot(int registrationCount, Set<Long> courseIds) {
+    }
+}
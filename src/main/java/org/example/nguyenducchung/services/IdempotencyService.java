@@ -0,0 +1,121 @@
+package org.example.nguyenducchung.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Lưu response gần đây theo header Idempotency-Key của từng client (Caffeine, giới hạn số key và hết hạn sau TTL).
+ * Hai client khác nhau dùng trùng key không bao giờ thấy response của nhau.
+ * <p>
+ * Request đầu tiên của một key chạy thật; các request cùng key đến trong lúc đó chờ kết quả của nó
+ * (tối đa registration.idempotency.wait-timeout) thay vì chạy lại. Retry sau đó nhận lại đúng
+ * response ban đầu kèm header {@value #REPLAYED_HEADER}. Chỉ response 2xx và lỗi nghiệp vụ 4xx được lưu;
+ * 5xx, 408/429 và exception (lỗi hạ tầng) bị bỏ để client có thể thử lại thật. Dùng lại key cho một request
+ * khác (khác fingerprint) trả về 422.
+ */
+@Service
+public class IdempotencyService {
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<ScopedKey, Entry> responses;
+    private final Duration waitTimeout;
+
+    public IdempotencyService(@Value("${registration.idempotency.max-keys:100000}") long maxKeys,
+                              @Value("${registration.idempotency.ttl:1h}") Duration ttl,
+                              @Value("${registration.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * @param client      client gửi request (người dùng đã xác thực hoặc sinh viên của request), phạm vi của key
+     * @param key         giá trị header Idempotency-Key, null nếu client không gửi
+     * @param fingerprint mô tả request (method, đường dẫn, tham số) để phát hiện key bị dùng lại sai
+     */
+    public ResponseEntity<?> execute(String client, String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        return execute(new ScopedKey(client, key), fingerprint, action);
+    }
+
+    private ResponseEntity<?> execute(ScopedKey key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        Entry fresh = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = responses.asMap().putIfAbsent(key, fresh);
+        if (existing == null) {
+            return run(key, fresh, action);
+        }
+
+        if (!existing.fingerprint().equals(fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("error", "Idempotency-Key was already used for a different request"));
+        }
+        try {
+            return replayed(existing.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A request with this Idempotency-Key is still being processed"));
+        }
+        catch (ExecutionException e) {
+            // Request gốc lỗi và đã bị xóa khỏi store: chạy lại như một request mới
+            return execute(key, fingerprint, action);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private ResponseEntity<?> run(ScopedKey key, Entry entry, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        }
+        catch (RuntimeException e) {
+            responses.asMap().remove(key, entry);
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+        if (!isStorable(response.getStatusCode())) {
+            responses.asMap().remove(key, entry);
+        }
+        entry.response().complete(response);
+        return response;
+    }
+
+    private static boolean isStorable(HttpStatusCode status) {
+        return status.is2xxSuccessful()
+                || status.is4xxClientError() && status.value() != 408 && status.value() != 429;
+    }
+
+    private static ResponseEntity<?> replayed(ResponseEntity<?> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private record ScopedKey(String client, String key) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<ResponseEntity<?>> response) {
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.nguyenducchung.services;
+
+import java.util.Date;
+
+/**
+ * Dữ liệu của một dòng cần tính giá, ngoài khóa học: số đăng ký sinh viên đã có trước dòng này (kể cả
+ * các dòng đứng trước trong cùng giỏ), số khóa học trong giỏ và thời điểm tính giá.
+ */
+public record PricingContext(int previousRegistrations, int cartSize, Date now) {
+    public static PricingContext single(int previousRegistrations, Date now) {
+        return new PricingContext(previousRegistrations, 1, now);
+    }
+}
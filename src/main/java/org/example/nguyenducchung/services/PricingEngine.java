@@ -0,0 +1,53 @@
+package org.example.nguyenducchung.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.entities.Course;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tính giá một khóa học cho mọi đường đăng ký (đăng ký lẻ, giỏ, lô, cohort, chuyển từ danh sách chờ, bản
+ * reactive) và cho báo giá, nên giá báo trước luôn bằng giá bị tính.
+ * <p>
+ * Bộ luật được dựng một lần lúc khởi động từ các bean {@link DiscountRule}, bỏ các luật không bao giờ giảm
+ * giá, và giữ trong một mảng bất biến. Các luật không cộng dồn: dòng được áp luật giảm nhiều nhất (bằng
+ * nhau thì luật đứng trước), giá làm tròn xuống như trước đây (price * (100 - percent) / 100).
+ */
+@Slf4j
+@Service
+public class PricingEngine {
+    private final DiscountRule[] rules;
+
+    @Autowired
+    public PricingEngine(ObjectProvider<DiscountRule> rules) {
+        this(rules.orderedStream().toList());
+    }
+
+    public PricingEngine(List<DiscountRule> rules) {
+        this.rules = rules.stream().filter(DiscountRule::isActive).toArray(DiscountRule[]::new);
+        log.info("Pricing rules: {}", Arrays.stream(this.rules).map(DiscountRule::name).toList());
+    }
+
+    public Price price(Course course, PricingContext context) {
+        DiscountRule applied = null;
+        int percentOff = 0;
+        for (DiscountRule rule : rules) {
+            int percent = rule.percentOff(course, context);
+            if (percent > percentOff) {
+                applied = rule;
+                percentOff = percent;
+            }
+        }
+        return new Price(course.getPrice() * (100 - percentOff) / 100, percentOff, applied == null ? null : applied.name());
+    }
+
+    /**
+     * Giá sau giảm, phần trăm giảm và tên luật đã áp (null nếu không giảm).
+     */
+    public record Price(Long price, int percentOff, String rule) {
+    }
+}
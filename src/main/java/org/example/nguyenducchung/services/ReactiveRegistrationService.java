@@ -0,0 +1,231 @@
+package org.example.nguyenducchung.services;
+
+import io.r2dbc.spi.Readable;
+import org.example.nguyenducchung.models.entities.Course;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Bản non-blocking của {@link RegistrationService} (profile "reactive") trên R2DBC, dùng chung
+ * {@link RegistrationRules}, {@link PricingEngine} và cùng schema với bản JPA.
+ * <p>
+ * Summary của sinh viên được khóa bằng một câu UPDATE tăng version (khóa hàng, chạy được trên cả
+ * SQL Server lẫn H2) thay cho SELECT ... FOR UPDATE. Id của Registration lấy từ registration_seq:
+ * mỗi giá trị sequence mà bản reactive lấy được dùng trực tiếp làm id, nên không đụng dải id mà
+ * bộ tối ưu pooled của Hibernate cấp phát từ các giá trị khác.
+ * <p>
+ * Khóa học có capacity được giữ chỗ bằng cách khóa hàng course (cùng kiểu UPDATE như summary) rồi đếm
+ * số đăng ký, thay cho bộ đếm trong bộ nhớ của {@link SeatReservationService} mà bản reactive không dùng.
+ * Danh sách chờ, ghi danh theo cohort và đăng ký bất đồng bộ dựa trên bộ đếm đó (và hủy đăng ký ở đây không
+ * chuyển ai lên từ danh sách chờ), nên các endpoint của chúng không được đăng ký ở profile này. Các controller
+ * còn lại (khóa học, import/export, quản trị cache và summary) gọi JPA/JDBC blocking nên cũng chỉ chạy ở
+ * profile servlet, tránh chặn event loop.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveRegistrationService {
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final PricingEngine pricingEngine;
+
+    public ReactiveRegistrationService(DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                                       PricingEngine pricingEngine) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.pricingEngine = pricingEngine;
+    }
+
+    public Mono<List<Course>> registerCourse(String studentEmail, Long courseId) {
+        Date now = new Date();
+        return findStudentId(studentEmail)
+                .flatMap(studentId -> findCourse(courseId)
+                        .flatMap(course -> {
+                            // Kiểm tra nếu khóa học đã bắt đầu
+                            RegistrationRules.checkCanRegister(course, now);
+                            return lockSummary(studentId).flatMap(summary -> {
+                                RegistrationRules.checkNotRegistered(summary.courseIds(), courseId);
+                                Long discountedPrice = pricingEngine.price(course,
+                                        PricingContext.single(summary.registrationCount(), now)).price();
+
+                                return reserveSeat(course)
+                                        .then(insertRegistration(studentId, courseId, discountedPrice, now))
+                                        .then(findRegisteredCourses(studentId, courseId))
+                                        .flatMap(registeredCourses -> recordRegistration(studentId, courseId)
+                                                .then(Mono.fromSupplier(() -> {
+                                                    registeredCourses.add(course);
+                                                    return registeredCourses;
+                                                })));
+                            });
+                        }))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> unregisterCourse(String studentEmail, Long courseId) {
+        Date now = new Date();
+        return findStudentId(studentEmail)
+                .flatMap(studentId -> findCourse(courseId)
+                        .flatMap(course -> lockSummary(studentId).flatMap(summary -> {
+                            RegistrationRules.checkRegistered(summary.courseIds(), courseId);
+                            // Kiểm tra xem khóa học đã bắt đầu chưa
+                            RegistrationRules.checkCanUnregister(course, now);
+
+                            return databaseClient.sql("delete from registration where student_id = :studentId and course_id = :courseId")
+                                    .bind("studentId", studentId)
+                                    .bind("courseId", courseId)
+                                    .fetch().rowsUpdated()
+                                    .flatMap(deleted -> deleted == 0
+                                            ? Mono.error(new RuntimeException(RegistrationRules.REGISTRATION_NOT_FOUND))
+                                            : recordUnregistration(studentId, courseId));
+                        })))
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Long> findStudentId(String email) {
+        return databaseClient.sql("select id from student where email = :email")
+                .bind("email", email)
+                .map(row -> row.get("id", Long.class))
+                .first()
+                .switchIfEmpty(Mono.error(() -> new RuntimeException(RegistrationRules.STUDENT_NOT_FOUND)));
+    }
+
+    private Mono<Course> findCourse(Long courseId) {
+        return databaseClient.sql("select id, name, start_time, end_time, price, capacity from course where id = :id")
+                .bind("id", courseId)
+                .map(ReactiveRegistrationService::toCourse)
+                .first()
+                .switchIfEmpty(Mono.error(() -> new RuntimeException(RegistrationRules.COURSE_NOT_FOUND)));
+    }
+
+    // Các khóa đã đăng ký trước (trừ khóa vừa đăng ký) theo thứ tự đăng ký
+    private Mono<List<Course>> findRegisteredCourses(Long studentId, Long excludedCourseId) {
+        return databaseClient.sql("select c.id, c.name, c.start_time, c.end_time, c.price, c.capacity "
+                        + "from registration r join course c on c.id = r.course_id "
+                        + "where r.student_id = :studentId and r.course_id <> :courseId order by r.id")
+                .bind("studentId", studentId)
+                .bind("courseId", excludedCourseId)
+                .map(ReactiveRegistrationService::toCourse)
+                .all()
+                .collect(ArrayList::new, List::add);
+    }
+
+    private Mono<Summary> lockSummary(Long studentId) {
+        return databaseClient.sql("update student_enrollment_summary set version = version + 1 where student_id = :studentId")
+                .bind("studentId", studentId)
+                .fetch().rowsUpdated()
+                .flatMap(updated -> updated == 0 ? createSummary(studentId) : Mono.<Void>empty())
+                .then(readSummary(studentId));
+    }
+
+    /**
+     * Summary chưa có: dựng từ bảng registration như {@link EnrollmentSummaryService#lockSummary}.
+     */
+    private Mono<Void> createSummary(Long studentId) {
+        return databaseClient.sql("insert into student_enrollment_summary (student_id, registration_count, version) "
+                        + "select cast(:studentId as bigint), count(*), 0 from registration where student_id = :studentId")
+                .bind("studentId", studentId)
+                .then()
+                .then(databaseClient.sql("insert into student_enrollment_summary_course (student_id, course_id) "
+                                + "select student_id, course_id from registration where student_id = :studentId")
+                        .bind("studentId", studentId)
+                        .then());
+    }
+
+    private Mono<Summary> readSummary(Long studentId) {
+        Mono<Integer> registrationCount = databaseClient.sql("select registration_count from student_enrollment_summary where student_id = :studentId")
+                .bind("studentId", studentId)
+                .map(row -> row.get("registration_count", Integer.class))
+                .first();
+        Mono<Set<Long>> courseIds = databaseClient.sql("select course_id from student_enrollment_summary_course where student_id = :studentId")
+                .bind("studentId", studentId)
+                .map(row -> row.get("course_id", Long.class))
+                .all()
+                .collect(HashSet::new, Set::add);
+        return registrationCount.zipWith(courseIds, Summary::new);
+    }
+
+    /**
+     * Khóa hàng course trong transaction để các đăng ký đồng thời vào cùng khóa học đếm lần lượt, rồi so số
+     * đăng ký đã commit với capacity (đọc lại dưới khóa). Khóa học không có capacity không bị khóa.
+     */
+    private Mono<Void> reserveSeat(Course course) {
+        if (course.getCapacity() == null) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("update course set capacity = capacity where id = :courseId")
+                .bind("courseId", course.getId())
+                .then()
+                .then(databaseClient.sql("select c.capacity, (select count(*) from registration r where r.course_id = c.id) as taken "
+                                + "from course c where c.id = :courseId")
+                        .bind("courseId", course.getId())
+                        .map(row -> {
+                            Integer capacity = row.get("capacity", Integer.class);
+                            return capacity != null && row.get("taken", Long.class) >= capacity;
+                        })
+                        .first())
+                .flatMap(full -> full
+                        ? Mono.error(new RuntimeException(RegistrationRules.COURSE_FULL))
+                        : Mono.<Void>empty());
+    }
+
+    private Mono<Void> insertRegistration(Long studentId, Long courseId, Long price, Date registeredDate) {
+        return databaseClient.sql("select next value for registration_seq")
+                .map(row -> row.get(0, Long.class))
+                .first()
+                .flatMap(id -> databaseClient.sql("insert into registration (id, student_id, course_id, price, registered_date) "
+                                + "values (:id, :studentId, :courseId, :price, :registeredDate)")
+                        .bind("id", id)
+                        .bind("studentId", studentId)
+                        .bind("courseId", courseId)
+                        .bind("price", price)
+                        .bind("registeredDate", LocalDateTime.ofInstant(registeredDate.toInstant(), ZoneId.systemDefault()))
+                        .then())
+                .onErrorMap(DataIntegrityViolationException.class, RegistrationRules::alreadyRegisteredOr);
+    }
+
+    private Mono<Void> recordRegistration(Long studentId, Long courseId) {
+        return databaseClient.sql("insert into student_enrollment_summary_course (student_id, course_id) values (:studentId, :courseId)")
+                .bind("studentId", studentId)
+                .bind("courseId", courseId)
+                .then()
+                .then(databaseClient.sql("update student_enrollment_summary set registration_count = registration_count + 1 where student_id = :studentId")
+                        .bind("studentId", studentId)
+                        .then());
+    }
+
+    private Mono<Void> recordUnregistration(Long studentId, Long courseId) {
+        return databaseClient.sql("delete from student_enrollment_summary_course where student_id = :studentId and course_id = :courseId")
+                .bind("studentId", studentId)
+                .bind("courseId", courseId)
+                .then()
+                .then(databaseClient.sql("update student_enrollment_summary set registration_count = registration_count - 1 where student_id = :studentId")
+                        .bind("studentId", studentId)
+                        .then());
+    }
+
+    private static Course toCourse(Readable row) {
+        return Course.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .startTime(toDate(row.get("start_time", LocalDateTime.class)))
+                .endTime(toDate(row.get("end_time", LocalDateTime.class)))
+                .price(row.get("price", Long.class))
+                .capacity(row.get("capacity", Integer.class))
+                .build();
+    }
+
+    private static Date toDate(LocalDateTime value) {
+        return value == null ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private record Summary(int registrationCount, Set<Long> courseIds) {
+    }
+}
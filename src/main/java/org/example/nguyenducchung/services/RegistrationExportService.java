@@ -0,0 +1,202 @@
+package org.example.nguyenducchung.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Xuất đăng ký (danh sách lớp và doanh thu theo Registration.price) ra CSV hoặc NDJSON với bộ nhớ
+ * không đổi: đọc bằng JDBC qua cursor forward-only, read-only với fetch size
+ * registration.export.fetch-size và ghi từng dòng ra stream ngay khi đọc.
+ * <p>
+ * Không đi qua JPA nên không có persistence context nào giữ lại entity; mỗi dòng chỉ tồn tại
+ * trong lúc được ghi ra.
+ */
+@Service
+public class RegistrationExportService {
+    public enum Format { CSV, NDJSON }
+
+    static final String[] COLUMNS = {"registrationId", "courseId", "courseName", "studentId", "email",
+            "firstName", "lastName", "price", "registeredDate"};
+
+    private static final String SELECT = "select r.id, c.id, c.name, s.id, s.email, s.first_name, s.last_name, r.price, r.registered_date "
+            + "from registration r join course c on c.id = r.course_id join student s on s.id = r.student_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int fetchSize;
+
+    public RegistrationExportService(JdbcTemplate jdbcTemplate,
+                                     @Value("${registration.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Kiểm tra bộ lọc trước khi bắt đầu ghi response: phải có courseId hoặc khoảng ngày.
+     */
+    public static void checkFilter(Long courseId, LocalDate from, LocalDate to) {
+        if (courseId == null && from == null && to == null) {
+            throw new RuntimeException("Export requires a courseId or a date range");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new RuntimeException("Export date range is invalid");
+        }
+    }
+
+    /**
+     * Ghi các đăng ký khớp bộ lọc (from, to tính theo ngày, bao gồm cả hai đầu) ra out theo thứ tự id.
+     *
+     * @return số dòng đã ghi
+     */
+    public long export(Long courseId, LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        checkFilter(courseId, from, to);
+
+        StringBuilder sql = new StringBuilder(SELECT).append(" where 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (courseId != null) {
+            sql.append(" and r.course_id = ?");
+            params.add(courseId);
+        }
+        if (from != null) {
+            sql.append(" and r.registered_date >= ?");
+            params.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" and r.registered_date < ?");
+            params.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        sql.append(" order by r.id");
+
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                try {
+                    writer.write(resultSet);
+                    rows[0]++;
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            // Client ngắt kết nối giữa chừng: dừng đọc cursor và trả connection về pool
+            throw e.getCause();
+        }
+        writer.finish();
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writeField(i == COLUMNS.length ? timestamp(row.getTimestamp(i)) : row.getString(i));
+            }
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            writeNumber(COLUMNS[0], row.getLong(1), row.wasNull());
+            writeNumber(COLUMNS[1], row.getLong(2), row.wasNull());
+            generator.writeStringField(COLUMNS[2], row.getString(3));
+            writeNumber(COLUMNS[3], row.getLong(4), row.wasNull());
+            generator.writeStringField(COLUMNS[4], row.getString(5));
+            generator.writeStringField(COLUMNS[5], row.getString(6));
+            generator.writeStringField(COLUMNS[6], row.getString(7));
+            writeNumber(COLUMNS[7], row.getLong(8), row.wasNull());
+            generator.writeStringField(COLUMNS[8], timestamp(row.getTimestamp(9)));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNumber(String field, long value, boolean isNull) throws IOException {
+            if (isNull) {
+                generator.writeNullField(field);
+            }
+            else {
+                generator.writeNumberField(field, value);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static String timestamp(Timestamp value) {
+        return value == null ? null : value.toLocalDateTime().toString();
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.nguyenducchung.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.dtos.RegistrationTicket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hàng đợi đăng ký bất đồng bộ (registration.async.enabled=true): request chỉ được xếp vào hàng và
+ * nhận ticket; một thread ghi duy nhất rút tối đa registration.async.batch-size yêu cầu mỗi lần và
+ * commit cả lô bằng {@link RegistrationService#registerBatch}. Nếu lô bị rollback vì trùng ở DB,
+ * từng yêu cầu của lô được chạy lại riêng qua {@link RegistrationService#registerCourse}; lô lỗi vì lý do
+ * khác (DB không truy cập được, vi phạm ràng buộc khác) không được chạy lại mà mọi ticket chuyển FAILED.
+ * <p>
+ * Hàng đợi có giới hạn: {@link #submit} trả về null khi đầy (controller trả 429). Khi ứng dụng
+ * dừng, hàng ngừng nhận yêu cầu mới và thread ghi xử lý hết phần còn lại (tối đa
+ * registration.async.shutdown-timeout) trước khi connection pool bị đóng.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "registration.async.enabled", havingValue = "true")
+public class RegistrationQueue implements SmartLifecycle {
+    public static final String BATCH_FAILED = "Registration could not be processed, please retry";
+
+    private final RegistrationService registrationService;
+    private final BlockingQueue<RegistrationTicket> queue;
+    private final Cache<String, RegistrationTicket> tickets;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public RegistrationQueue(RegistrationService registrationService, MeterRegistry meterRegistry,
+                             @Value("${registration.async.queue-capacity:10000}") int capacity,
+                             @Value("${registration.async.batch-size:100}") int batchSize,
+                             @Value("${registration.async.ticket-ttl:10m}") Duration ticketTtl,
+                             @Value("${registration.async.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.registrationService = registrationService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(capacity * 10L)
+                .expireAfterWrite(ticketTtl)
+                .build();
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        meterRegistry.gauge("registration.queue.size", queue, BlockingQueue::size);
+    }
+
+    /**
+     * Xếp yêu cầu vào hàng. Trả về ticket PENDING, hoặc null nếu hàng đầy hoặc đang dừng.
+     */
+    public RegistrationTicket submit(String studentEmail, Long courseId) {
+        if (!accepting) {
+            return null;
+        }
+        RegistrationTicket ticket = RegistrationTicket.builder()
+                .ticketId(UUID.randomUUID().toString())
+                .studentEmail(studentEmail)
+                .courseId(courseId)
+                .status(RegistrationTicket.Status.PENDING)
+                .build();
+        tickets.put(ticket.getTicketId(), ticket);
+        if (!queue.offer(ticket)) {
+            tickets.invalidate(ticket.getTicketId());
+            return null;
+        }
+        return ticket;
+    }
+
+    public RegistrationTicket find(String ticketId) {
+        return tickets.getIfPresent(ticketId);
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        running = true;
+        writer = new Thread(this::drain, "registration-queue-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Registration queue stopped with {} pending requests", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Dừng sau web server (phase thấp hơn) để không còn request mới, và trước khi DataSource bị đóng.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<RegistrationTicket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                RegistrationTicket first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<RegistrationTicket> batch) {
+        List<RegistrationTicket> results;
+        try {
+            results = registrationService.registerBatch(batch);
+        }
+        catch (RuntimeException e) {
+            if (!RegistrationRules.ALREADY_REGISTERED.equals(e.getMessage())) {
+                log.error("Registration batch of {} requests failed", batch.size(), e);
+                results = batch.stream()
+                        .map(ticket -> ticket.toBuilder().status(RegistrationTicket.Status.FAILED).error(BATCH_FAILED).build())
+                        .toList();
+            }
+            else {
+                results = batch.stream().map(this::processOne).toList();
+            }
+        }
+        results.forEach(result -> tickets.put(result.getTicketId(), result));
+    }
+
+    private RegistrationTicket processOne(RegistrationTicket ticket) {
+        try {
+            registrationService.registerCourse(ticket.getStudentEmail(), ticket.getCourseId());
+            return ticket.toBuilder().status(RegistrationTicket.Status.REGISTERED).build();
+        }
+        catch (RuntimeException e) {
+            return ticket.toBuilder().status(RegistrationTicket.Status.REJECTED).error(e.getMessage()).build();
+        }
+    }
+}
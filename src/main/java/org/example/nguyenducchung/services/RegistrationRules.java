@@ -0,0 +1,75 @@
+package org.example.nguyenducchung.services;
+
+import org.example.nguyenducchung.models.entities.Course;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Luật nghiệp vụ đăng ký dùng chung cho bản JPA ({@link RegistrationService}, {@link CohortEnrollmentService})
+ * và bản reactive ({@link ReactiveRegistrationService}): không truy cập DB, chỉ kiểm tra. Giá do
+ * {@link PricingEngine} tính.
+ */
+public final class RegistrationRules {
+    public static final String STUDENT_NOT_FOUND = "Student not found";
+    public static final String COURSE_NOT_FOUND = "Course not found";
+    public static final String REGISTER_STARTED = "Cannot register for a course that has already started";
+    public static final String UNREGISTER_STARTED = "Cannot unregister from a course that has already started";
+    public static final String ALREADY_REGISTERED = "Student has already registered for this course";
+    public static final String REGISTRATION_NOT_FOUND = "Registration not found";
+    public static final String COURSE_FULL = "Course is full";
+
+    // Ràng buộc unique (student_id, course_id) của bảng registration (Flyway V1_1)
+    public static final String UNIQUE_REGISTRATION_CONSTRAINT = "uk_registration_student_course";
+
+    private RegistrationRules() {
+    }
+
+    public static void checkCanRegister(Course course, Date now) {
+        if (course.getStartTime().before(now)) {
+            throw new RuntimeException(REGISTER_STARTED);
+        }
+    }
+
+    public static void checkCanUnregister(Course course, Date now) {
+        if (course.getStartTime().before(now)) {
+            throw new RuntimeException(UNREGISTER_STARTED);
+        }
+    }
+
+    public static void checkNotRegistered(Set<Long> registeredCourseIds, Long courseId) {
+        if (registeredCourseIds.contains(courseId)) {
+            throw new RuntimeException(ALREADY_REGISTERED);
+        }
+    }
+
+    public static void checkRegistered(Set<Long> registeredCourseIds, Long courseId) {
+        if (!registeredCourseIds.contains(courseId)) {
+            throw new RuntimeException(REGISTRATION_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Lỗi ghi có phải do {@value #UNIQUE_REGISTRATION_CONSTRAINT} chặn đăng ký trùng không. H2 và SQL Server
+     * (JDBC lẫn R2DBC) đều đưa tên ràng buộc vào message; vi phạm khác (khóa ngoại, NOT NULL) không phải
+     * "đã đăng ký" và phải được ném tiếp.
+     */
+    public static boolean isDuplicateRegistration(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(UNIQUE_REGISTRATION_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Đổi vi phạm {@value #UNIQUE_REGISTRATION_CONSTRAINT} thành lỗi {@link #ALREADY_REGISTERED}; vi phạm khác
+     * giữ nguyên để trả 5xx.
+     */
+    public static RuntimeException alreadyRegisteredOr(RuntimeException e) {
+        return isDuplicateRegistration(e) ? new RuntimeException(ALREADY_REGISTERED) : e;
+    }
+}
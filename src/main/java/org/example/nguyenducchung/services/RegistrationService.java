@@ -1,97 +1,473 @@
 package org.example.nguyenducchung.services;
 
+import org.example.nguyenducchung.configs.ReadYourWritesTracker;
+import org.example.nguyenducchung.models.dtos.CheckoutItem;
+import org.example.nguyenducchung.models.dtos.CheckoutResponse;
+import org.example.nguyenducchung.models.dtos.CourseRosterEntry;
+import org.example.nguyenducchung.models.dtos.KeysetPage;
+import org.example.nguyenducchung.models.dtos.PriceQuote;
+import org.example.nguyenducchung.models.dtos.QuoteItem;
+import org.example.nguyenducchung.models.dtos.RegistrationTicket;
+import org.example.nguyenducchung.models.dtos.StudentRegistrationView;
 import org.example.nguyenducchung.models.entities.Course;
 import org.example.nguyenducchung.models.entities.Registration;
 import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.models.entities.StudentEnrollmentSummary;
 import org.example.nguyenducchung.repositories.CourseRepository;
 import org.example.nguyenducchung.repositories.RegistrationRepository;
 import org.example.nguyenducchung.repositories.StudentRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RegistrationService {
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int PROMOTION_CANDIDATES = 10;
+
     private final RegistrationRepository registrationRepository;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
+    private final EnrollmentSummaryService enrollmentSummaryService;
+    private final SeatReservationService seatReservationService;
+    private final WaitlistService waitlistService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final PricingEngine pricingEngine;
 
-    public RegistrationService(RegistrationRepository registrationRepository, StudentRepository studentRepository, CourseRepository courseRepository) {
+    public RegistrationService(RegistrationRepository registrationRepository, StudentRepository studentRepository, CourseRepository courseRepository,
+                               EnrollmentSummaryService enrollmentSummaryService, SeatReservationService seatReservationService,
+                               WaitlistService waitlistService, ReadYourWritesTracker readYourWritesTracker, PricingEngine pricingEngine) {
         this.registrationRepository = registrationRepository;
         this.studentRepository = studentRepository;
         this.courseRepository = courseRepository;
+        this.enrollmentSummaryService = enrollmentSummaryService;
+        this.seatReservationService = seatReservationService;
+        this.waitlistService = waitlistService;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.pricingEngine = pricingEngine;
     }
+
+    /**
+     * Kiểm tra trùng lặp dựa trên summary của sinh viên (không quét danh sách đăng ký), giá tính bằng
+     * {@link PricingEngine} từ số đăng ký trong summary.
+     * Ràng buộc unique (student_id, course_id) vẫn là chốt chặn cuối cùng khi có đăng ký đồng thời.
+     * Khóa học có capacity được giữ chỗ qua {@link SeatReservationService}, không khóa hàng course.
+     */
+    @Transactional
     public List<Course> registerCourse(String studentEmail, Long courseId) {
+        Registration registration = register(studentEmail, courseId);
+
+        // Các khóa đã đăng ký trước theo thứ tự đăng ký, khóa vừa đăng ký ở cuối
+        Long studentId = registration.getStudent().getId();
+        List<Course> registeredCourses = registrationRepository.findRegisteredCourses(studentId).stream()
+                .filter(course -> !course.getId().equals(courseId))
+                .collect(Collectors.toCollection(ArrayList::new));
+        registeredCourses.add(registration.getCourse());
+        return registeredCourses;
+    }
+
+    /**
+     * Giống {@link #registerCourse} nhưng chỉ trả về đăng ký vừa tạo, không đọc lại các khóa đã đăng ký.
+     */
+    @Transactional
+    public StudentRegistrationView registerCourseView(String studentEmail, Long courseId) {
+        Registration registration = register(studentEmail, courseId);
+        Course course = registration.getCourse();
+        return StudentRegistrationView.builder()
+                .registrationId(registration.getId())
+                .courseId(course.getId())
+                .courseName(course.getName())
+                .courseStartTime(course.getStartTime())
+                .price(registration.getPrice())
+                .registeredDate(registration.getRegisteredDate())
+                .build();
+    }
+
+    private Registration register(String studentEmail, Long courseId) {
         Student student = studentRepository.findByEmail(studentEmail);
         if (student == null) {
-            throw new RuntimeException("Student not found");
+            throw new RuntimeException(RegistrationRules.STUDENT_NOT_FOUND);
         }
 
         Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
-
-        List<Registration> registrations = registrationRepository.findByStudentId(student.getId());
-
-        boolean alreadyRegistered = registrations.stream()
-                .anyMatch(reg -> reg.getCourse().getId().equals(courseId));
+                .orElseThrow(() -> new RuntimeException(RegistrationRules.COURSE_NOT_FOUND));
 
         // Kiểm tra nếu khóa học đã bắt đầu
-        if (course.getStartTime().before(new Date())) {
-            throw new RuntimeException("Cannot register for a course that has already started");
-        }
+        Date now = new Date();
+        RegistrationRules.checkCanRegister(course, now);
 
-        if (alreadyRegistered) {
-            throw new RuntimeException("Student has already registered for this course");
-        }
+        StudentEnrollmentSummary summary = enrollmentSummaryService.lockSummary(student.getId());
+        RegistrationRules.checkNotRegistered(summary.getCourseIds(), courseId);
 
-        Long discountedPrice = course.getPrice();
-        if (registrations.size() >= 2) {
-            discountedPrice = course.getPrice() * 75 / 100;
-        }
+        Long discountedPrice = pricingEngine.price(course, PricingContext.single(summary.getRegistrationCount(), now)).price();
+        seatReservationService.reserve(course);
 
         Registration newRegistration = Registration.builder()
                 .student(student)
                 .course(course)
                 .price(discountedPrice)
-                .registeredDate(new Date())
+                .registeredDate(now)
                 .build();
 
-        registrationRepository.save(newRegistration);
+        try {
+            registrationRepository.saveAndFlush(newRegistration);
+        }
+        catch (DataIntegrityViolationException e) {
+            throw RegistrationRules.alreadyRegisteredOr(e);
+        }
+
+        enrollmentSummaryService.recordRegistration(summary, courseId);
+        readYourWritesTracker.recordWrite(studentEmail);
 
-        List<Course> registeredCourses = registrations.stream()
-                .map(Registration::getCourse)
-                .collect(Collectors.toList());
+        return newRegistration;
+    }
 
-        registeredCourses.add(course);
+    /**
+     * Đăng ký nhiều khóa học cùng lúc: kiểm tra toàn bộ giỏ trên summary của sinh viên,
+     * giảm giá lũy tiến theo thứ tự trong giỏ (và theo cỡ giỏ, xem {@link PricingEngine}) và lưu tất cả
+     * trong một transaction.
+     */
+    @Transactional
+    public CheckoutResponse checkout(String studentEmail, List<Long> courseIds) {
+        checkCart(courseIds);
 
-        return registeredCourses;
+        Student student = studentRepository.findByEmail(studentEmail);
+        if (student == null) {
+            throw new RuntimeException(RegistrationRules.STUDENT_NOT_FOUND);
+        }
+
+        Map<Long, Course> coursesById = courseRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        seatReservationService.prefetch(coursesById.values());
+
+        StudentEnrollmentSummary summary = enrollmentSummaryService.lockSummary(student.getId());
+        List<Course> registeredCourses = new ArrayList<>(registrationRepository.findRegisteredCourses(student.getId()));
+
+        Date now = new Date();
+        int registrationCount = summary.getRegistrationCount();
+        List<Registration> newRegistrations = new ArrayList<>();
+        List<CheckoutItem> items = new ArrayList<>();
+        long totalPrice = 0;
+
+        for (Long courseId : courseIds) {
+            Course course = coursesById.get(courseId);
+            if (course == null) {
+                throw new RuntimeException(RegistrationRules.COURSE_NOT_FOUND);
+            }
+
+            // Kiểm tra nếu khóa học đã bắt đầu
+            RegistrationRules.checkCanRegister(course, now);
+            RegistrationRules.checkNotRegistered(summary.getCourseIds(), courseId);
+            seatReservationService.reserve(course);
+
+            Long discountedPrice = pricingEngine.price(course, new PricingContext(registrationCount, courseIds.size(), now)).price();
+            registrationCount++;
+
+            newRegistrations.add(Registration.builder()
+                    .student(student)
+                    .course(course)
+                    .price(discountedPrice)
+                    .registeredDate(now)
+                    .build());
+            items.add(CheckoutItem.builder()
+                    .courseId(courseId)
+                    .courseName(course.getName())
+                    .originalPrice(course.getPrice())
+                    .price(discountedPrice)
+                    .build());
+            totalPrice += discountedPrice;
+            registeredCourses.add(course);
+        }
+
+        try {
+            registrationRepository.saveAllAndFlush(newRegistrations);
+        }
+        catch (DataIntegrityViolationException e) {
+            throw RegistrationRules.alreadyRegisteredOr(e);
+        }
+        courseIds.forEach(courseId -> enrollmentSummaryService.recordRegistration(summary, courseId));
+        readYourWritesTracker.recordWrite(studentEmail);
+
+        return CheckoutResponse.builder()
+                .items(items)
+                .totalPrice(totalPrice)
+                .registeredCourses(registeredCourses)
+                .build();
+    }
+
+    /**
+     * Đăng ký cả một lô yêu cầu (từ {@link RegistrationQueue}) trong một transaction với cùng luật như
+     * {@link #registerCourse}. Yêu cầu vi phạm luật chỉ bị từ chối riêng, không làm hỏng cả lô; các yêu
+     * cầu sau trong lô thấy được đăng ký của yêu cầu trước (trùng lặp, giảm giá).
+     * Nếu DB vẫn báo trùng (đăng ký đồng thời từ đường khác) thì cả lô rollback và ném lỗi.
+     */
+    @Transactional
+    public List<RegistrationTicket> registerBatch(List<RegistrationTicket> tickets) {
+        Map<String, Student> studentsByEmail = studentRepository.findByEmailIn(
+                        tickets.stream().map(RegistrationTicket::getStudentEmail).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Student::getEmail, Function.identity(), (a, b) -> a));
+        Map<Long, Course> coursesById = courseRepository.findAllById(
+                        tickets.stream().map(RegistrationTicket::getCourseId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        seatReservationService.prefetch(coursesById.values());
+        Set<Long> studentIds = studentsByEmail.values().stream().map(Student::getId).collect(Collectors.toSet());
+        Map<Long, StudentEnrollmentSummary> summaries = studentIds.isEmpty() ? Map.of()
+                : enrollmentSummaryService.lockSummaries(studentIds);
+
+        Date now = new Date();
+        List<Registration> newRegistrations = new ArrayList<>();
+        List<RegistrationTicket> results = new ArrayList<>(tickets.size());
+        for (RegistrationTicket ticket : tickets) {
+            try {
+                Student student = studentsByEmail.get(ticket.getStudentEmail());
+                if (student == null) {
+                    throw new RuntimeException(RegistrationRules.STUDENT_NOT_FOUND);
+                }
+                Course course = coursesById.get(ticket.getCourseId());
+                if (course == null) {
+                    throw new RuntimeException(RegistrationRules.COURSE_NOT_FOUND);
+                }
+                RegistrationRules.checkCanRegister(course, now);
+                StudentEnrollmentSummary summary = summaries.get(student.getId());
+                RegistrationRules.checkNotRegistered(summary.getCourseIds(), course.getId());
+                seatReservationService.reserve(course);
+
+                Long discountedPrice = pricingEngine.price(course, PricingContext.single(summary.getRegistrationCount(), now)).price();
+                newRegistrations.add(Registration.builder()
+                        .student(student)
+                        .course(course)
+                        .price(discountedPrice)
+                        .registeredDate(now)
+                        .build());
+                enrollmentSummaryService.recordRegistration(summary, course.getId());
+                results.add(ticket.toBuilder().status(RegistrationTicket.Status.REGISTERED).price(discountedPrice).build());
+            }
+            catch (RuntimeException e) {
+                results.add(ticket.toBuilder().status(RegistrationTicket.Status.REJECTED).error(e.getMessage()).build());
+            }
+        }
+
+        try {
+            registrationRepository.saveAllAndFlush(newRegistrations);
+        }
+        catch (DataIntegrityViolationException e) {
+            throw RegistrationRules.alreadyRegisteredOr(e);
+        }
+        results.stream()
+                .filter(result -> result.getStatus() == RegistrationTicket.Status.REGISTERED)
+                .forEach(result -> readYourWritesTracker.recordWrite(result.getStudentEmail()));
+        return results;
+    }
+
+    /**
+     * Báo giá cho một hoặc nhiều khóa học đúng như {@link #checkout} (một khóa học: như {@link #registerCourse})
+     * sẽ tính tại thời điểm này, với cùng các kiểm tra, nhưng không ghi gì và không giữ chỗ. Số đăng ký của
+     * sinh viên đọc từ {@link EnrollmentSummaryService#snapshot} (cache), không khóa summary.
+     */
+    @Transactional(readOnly = true)
+    public PriceQuote quote(String studentEmail, List<Long> courseIds) {
+        checkCart(courseIds);
+        readYourWritesTracker.pinIfRecentlyWritten(studentEmail);
+        Student student = studentRepository.findByEmail(studentEmail);
+        if (student == null) {
+            throw new RuntimeException(RegistrationRules.STUDENT_NOT_FOUND);
+        }
+
+        Map<Long, Course> coursesById = courseRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        EnrollmentSummaryService.Snapshot snapshot = enrollmentSummaryService.snapshot(student.getId());
+
+        Date now = new Date();
+        List<QuoteItem> items = new ArrayList<>(courseIds.size());
+        long totalPrice = 0;
+        for (int i = 0; i < courseIds.size(); i++) {
+            Course course = coursesById.get(courseIds.get(i));
+            if (course == null) {
+                throw new RuntimeException(RegistrationRules.COURSE_NOT_FOUND);
+            }
+            RegistrationRules.checkCanRegister(course, now);
+            RegistrationRules.checkNotRegistered(snapshot.courseIds(), course.getId());
+
+            PricingEngine.Price price = pricingEngine.price(course,
+                    new PricingContext(snapshot.registrationCount() + i, courseIds.size(), now));
+            items.add(QuoteItem.builder()
+                    .courseId(course.getId())
+                    .courseName(course.getName())
+                    .originalPrice(course.getPrice())
+                    .percentOff(price.percentOff())
+                    .discountRule(price.rule())
+                    .price(price.price())
+                    .build());
+            totalPrice += price.price();
+        }
+        return PriceQuote.builder()
+                .studentEmail(studentEmail)
+                .items(items)
+                .totalPrice(totalPrice)
+                .build();
     }
 
+    private static void checkCart(List<Long> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+        if (new HashSet<>(courseIds).size() != courseIds.size()) {
+            throw new RuntimeException("Cart contains duplicate courses");
+        }
+    }
+
+    /**
+     * Chỗ vừa trống của khóa học có capacity được chuyển ngay trong transaction này cho sinh viên hợp lệ
+     * đầu tiên trong danh sách chờ (giá tính như {@link #registerCourse}); chỉ khi không ai được chuyển
+     * lên thì chỗ mới được trả lại cho {@link SeatReservationService}.
+     * <p>
+     * Người được chuyển lên được chọn trước, rồi summary của hai sinh viên được khóa theo thứ tự student id:
+     * hai lượt hủy chuyển chỗ cho nhau (mỗi người đang chờ khóa học của người kia) không thể mỗi bên giữ
+     * một khóa và chờ khóa còn lại.
+     */
+    @Transactional
     public void unregisterCourse(String studentEmail, Long courseId) {
         Student student = studentRepository.findByEmail(studentEmail);
         if (student == null) {
-            throw new RuntimeException("Student not found");
+            throw new RuntimeException(RegistrationRules.STUDENT_NOT_FOUND);
         }
 
         Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
+                .orElseThrow(() -> new RuntimeException(RegistrationRules.COURSE_NOT_FOUND));
 
-        Registration registration = registrationRepository.findByStudentId(student.getId())
-                .stream()
-                .filter(reg -> reg.getCourse().getId().equals(courseId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Registration not found"));
+        // Kiểm tra trước (không khóa) để request không hợp lệ không giữ/xóa người đầu danh sách chờ
+        Registration registration = registrationRepository.findByStudentIdAndCourseId(student.getId(), courseId)
+                .orElseThrow(() -> new RuntimeException(RegistrationRules.REGISTRATION_NOT_FOUND));
 
         // Kiểm tra xem khóa học đã bắt đầu chưa
-        if (course.getStartTime().before(new Date())) {
-            throw new RuntimeException("Cannot unregister from a course that has already started");
-        }
+        RegistrationRules.checkCanUnregister(course, new Date());
+
+        Set<Long> tried = new HashSet<>();
+        Long promotedId = course.getCapacity() == null ? null : claimNextWaiting(course, tried);
+        Map<Long, StudentEnrollmentSummary> summaries = lockInOrder(student.getId(), promotedId);
+        StudentEnrollmentSummary summary = summaries.get(student.getId());
+        // Summary đã khóa là nguồn quyết định: một lần hủy đồng thời có thể đã xóa đăng ký
+        RegistrationRules.checkRegistered(summary.getCourseIds(), courseId);
 
         registrationRepository.delete(registration);
+        enrollmentSummaryService.recordUnregistration(summary, courseId);
+        if (promotedId == null || !promoteFromWaitlist(course, summaries.get(promotedId), tried)) {
+            seatReservationService.release(courseId);
+        }
+        readYourWritesTracker.recordWrite(studentEmail);
+    }
+
+    private Map<Long, StudentEnrollmentSummary> lockInOrder(Long studentId, Long promotedId) {
+        Map<Long, StudentEnrollmentSummary> summaries = new HashMap<>();
+        Stream.of(studentId, promotedId)
+                .filter(Objects::nonNull)
+                .sorted()
+                .forEach(id -> summaries.put(id, enrollmentSummaryService.lockSummary(id)));
+        return summaries;
+    }
+
+    // Sinh viên đã rời hàng hoặc đang được transaction khác chuyển lên thì bị bỏ qua
+    private Long claimNextWaiting(Course course, Set<Long> tried) {
+        int limit = PROMOTION_CANDIDATES;
+        while (true) {
+            List<Long> candidates = waitlistService.firstWaiting(course.getId(), limit);
+            for (Long studentId : candidates) {
+                if (tried.add(studentId) && waitlistService.claim(course.getId(), studentId)) {
+                    return studentId;
+                }
+            }
+            if (candidates.size() < limit) {
+                return null;
+            }
+            limit += PROMOTION_CANDIDATES;
+        }
+    }
+
+    private boolean promoteFromWaitlist(Course course, StudentEnrollmentSummary summary, Set<Long> tried) {
+        while (!promote(course, summary)) {
+            // Hiếm: người được chọn đã tự đăng ký khóa học; summary của người kế tiếp được khóa sau các khóa đang giữ
+            Long nextId = claimNextWaiting(course, tried);
+            if (nextId == null) {
+                return false;
+            }
+            summary = enrollmentSummaryService.lockSummary(nextId);
+        }
+        return true;
     }
 
+    // Sinh viên đã tự đăng ký khóa học thì bị bỏ qua (và rời hàng chờ)
+    private boolean promote(Course course, StudentEnrollmentSummary summary) {
+        if (summary.getCourseIds().contains(course.getId())) {
+            return false;
+        }
+        Student student = studentRepository.findById(summary.getStudentId())
+                .orElseThrow(() -> new RuntimeException(RegistrationRules.STUDENT_NOT_FOUND));
 
+        Date now = new Date();
+        try {
+            registrationRepository.saveAndFlush(Registration.builder()
+                    .student(student)
+                    .course(course)
+                    .price(pricingEngine.price(course, PricingContext.single(summary.getRegistrationCount(), now)).price())
+                    .registeredDate(now)
+                    .build());
+        }
+        catch (DataIntegrityViolationException e) {
+            throw RegistrationRules.alreadyRegisteredOr(e);
+        }
+        enrollmentSummaryService.recordRegistration(summary, course.getId());
+        readYourWritesTracker.recordWrite(student.getEmail());
+        return true;
+    }
+
+    /**
+     * Đăng ký của sinh viên theo keyset trên Registration.id: trang sau bắt đầu từ id lớn hơn afterId,
+     * nên chi phí mỗi trang không tăng theo số trang đã đọc như OFFSET.
+     * Đọc từ replica, trừ khi sinh viên vừa ghi (xem {@link ReadYourWritesTracker}).
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<StudentRegistrationView> listStudentRegistrations(String studentEmail, Long afterId, int size) {
+        readYourWritesTracker.pinIfRecentlyWritten(studentEmail);
+        Student student = studentRepository.findByEmail(studentEmail);
+        if (student == null) {
+            throw new RuntimeException(RegistrationRules.STUDENT_NOT_FOUND);
+        }
+        int pageSize = pageSize(size);
+        List<StudentRegistrationView> items = registrationRepository.findStudentRegistrations(
+                student.getId(), afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        return keysetPage(items, pageSize, StudentRegistrationView::getRegistrationId);
+    }
+
+    /**
+     * Danh sách sinh viên của một khóa học, phân trang keyset như {@link #listStudentRegistrations}.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<CourseRosterEntry> listCourseRoster(Long courseId, Long afterId, int size) {
+        courseRepository.findById(courseId)
+                .orElseThrow(() -> new RuntimeException(RegistrationRules.COURSE_NOT_FOUND));
+        int pageSize = pageSize(size);
+        List<CourseRosterEntry> items = registrationRepository.findCourseRoster(
+                courseId, afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        return keysetPage(items, pageSize, CourseRosterEntry::getRegistrationId);
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Đọc thừa một dòng để biết còn trang sau mà không cần thêm câu COUNT
+    private static <T> KeysetPage<T> keysetPage(List<T> items, int pageSize, Function<T, Long> idOf) {
+        if (items.size() <= pageSize) {
+            return new KeysetPage<>(items, null);
+        }
+        List<T> page = items.subList(0, pageSize);
+        return new KeysetPage<>(new ArrayList<>(page), idOf.apply(page.get(pageSize - 1)));
+    }
 }
@@ -0,0 +1,173 @@
+package org.example.nguyenducchung.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.entities.Course;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Giữ chỗ cho khóa học có {@link Course#getCapacity()} bằng bộ đếm AtomicInteger trong bộ nhớ (mỗi khóa
+ * học một bộ đếm), không khóa hàng course trong DB: các đăng ký đồng thời vào cùng một khóa học chỉ
+ * tranh nhau một phép compare-and-set thay vì xếp hàng chờ khóa.
+ * <p>
+ * Bộ đếm là số đăng ký đã commit cộng số chỗ đang được giữ bởi transaction chưa kết thúc. Chỗ giữ trong
+ * transaction bị rollback được trả lại; chỗ của đăng ký bị hủy được trả lại khi transaction hủy commit.
+ * Bộ đếm được dựng lại từ bảng registration lúc khởi động, và lần đầu một khóa học có capacity được dùng
+ * (khóa học mới tạo hoặc vừa đặt capacity). Khóa học không có capacity không được đếm.
+ * <p>
+ * Bộ đếm chỉ đúng khi mọi đăng ký đi qua một instance ứng dụng và qua service này (bản reactive
+ * không dùng nó).
+ */
+@Slf4j
+@Service
+public class SeatReservationService implements SmartInitializingSingleton {
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, AtomicInteger> takenSeats = new ConcurrentHashMap<>();
+
+    public SeatReservationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Đếm lại số đăng ký của các khóa học có capacity. Chỉ gọi khi không có đăng ký nào đang chạy.
+     */
+    public void rebuild() {
+        Map<Long, AtomicInteger> counts = new ConcurrentHashMap<>();
+        jdbcTemplate.query("select r.course_id, count(*) from registration r join course c on c.id = r.course_id "
+                        + "where c.capacity is not null group by r.course_id",
+                row -> {
+                    counts.put(row.getLong(1), new AtomicInteger(row.getInt(2)));
+                });
+        takenSeats.clear();
+        takenSeats.putAll(counts);
+        log.info("Seat counters rebuilt for {} courses", counts.size());
+    }
+
+    /**
+     * Bỏ mọi bộ đếm: mỗi khóa học được đếm lại từ DB ở lần dùng kế tiếp. Chỉ gọi khi không có đăng ký nào đang chạy.
+     */
+    public void clear() {
+        takenSeats.clear();
+    }
+
+    /**
+     * Đếm trong một câu các khóa học có capacity chưa có bộ đếm (giỏ checkout, lô đăng ký), thay vì mỗi khóa
+     * học một câu ở lần {@link #reserve} đầu tiên.
+     */
+    public void prefetch(Collection<Course> courses) {
+        List<Long> uncounted = courses.stream()
+                .filter(course -> course.getCapacity() != null && !takenSeats.containsKey(course.getId()))
+                .map(Course::getId)
+                .distinct()
+                .toList();
+        if (uncounted.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("select course_id, count(*) from registration where course_id in ("
+                        + String.join(",", Collections.nCopies(uncounted.size(), "?")) + ") group by course_id",
+                row -> {
+                    counts.put(row.getLong(1), row.getInt(2));
+                },
+                uncounted.toArray());
+        uncounted.forEach(courseId -> takenSeats.putIfAbsent(courseId, new AtomicInteger(counts.getOrDefault(courseId, 0))));
+    }
+
+    /**
+     * Giữ một chỗ trong transaction hiện tại, ném lỗi nếu khóa học đã đủ chỗ.
+     * Chỗ được trả lại nếu transaction rollback.
+     */
+    public void reserve(Course course) {
+        if (course.getCapacity() == null) {
+            return;
+        }
+        AtomicInteger taken = counter(course.getId());
+        int current;
+        do {
+            current = taken.get();
+            if (current >= course.getCapacity()) {
+                throw new RuntimeException(RegistrationRules.COURSE_FULL);
+            }
+        } while (!taken.compareAndSet(current, current + 1));
+
+        afterCompletion(status -> {
+            if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                taken.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Trả lại chỗ của đăng ký bị hủy trong transaction hiện tại, khi transaction commit.
+     */
+    public void release(Long courseId) {
+        AtomicInteger taken = takenSeats.get(courseId);
+        if (taken == null) {
+            return;
+        }
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                taken.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Còn chỗ trống (khóa học không có capacity luôn còn chỗ).
+     */
+    public boolean hasFreeSeat(Course course) {
+        return course.getCapacity() == null || counter(course.getId()).get() < course.getCapacity();
+    }
+
+    /**
+     * Số chỗ đã đăng ký hoặc đang được giữ, null nếu khóa học chưa được đếm.
+     */
+    public Integer takenSeats(Long courseId) {
+        AtomicInteger taken = takenSeats.get(courseId);
+        return taken == null ? null : taken.get();
+    }
+
+    private AtomicInteger counter(Long courseId) {
+        AtomicInteger taken = takenSeats.get(courseId);
+        if (taken != null) {
+            return taken;
+        }
+        // Đếm ngoài map: trong computeIfAbsent câu JDBC giữ khóa bin của ConcurrentHashMap, chặn cả các
+        // khóa học khác cùng bin. Hai thread cùng đếm thì bộ đếm được put trước thắng, bản còn lại bị bỏ.
+        AtomicInteger counted = new AtomicInteger(jdbcTemplate.queryForObject(
+                "select count(*) from registration where course_id = ?", Integer.class, courseId));
+        taken = takenSeats.putIfAbsent(courseId, counted);
+        return taken != null ? taken : counted;
+    }
+
+    private static void afterCompletion(IntConsumer callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Ngoài transaction: thay đổi được coi như đã commit
+            callback.accept(TransactionSynchronization.STATUS_COMMITTED);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status);
+            }
+        });
+    }
+}
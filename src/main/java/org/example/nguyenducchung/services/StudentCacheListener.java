@@ -0,0 +1,71 @@
+package org.example.nguyenducchung.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.example.nguyenducchung.configs.CacheConfig;
+import org.example.nguyenducchung.models.entities.Student;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener của {@link Student}: xóa cache findByEmail sau khi transaction commit, kể cả khi Student
+ * được sửa qua dirty checking mà không gọi save.
+ * <p>
+ * findByEmail nạp cache bằng @Cacheable(sync = true), nên việc xóa một key chờ lượt nạp đang chạy của key đó
+ * xong rồi mới xóa: một lượt đọc bản cũ trước khi commit không thể ghi đè lại cache sau khi đã xóa.
+ * Câu lệnh bulk (deleteAllInBatch, JDBC) không đi qua listener.
+ */
+@Component
+public class StudentCacheListener {
+    private final CacheManager cacheManager;
+
+    public StudentCacheListener(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // Email chưa có sinh viên cũng được cache (null)
+    @PostPersist
+    public void created(Student student) {
+        String email = student.getEmail();
+        afterCommit(() -> evict(email, null));
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void changed(Student student) {
+        String email = student.getEmail();
+        Long studentId = student.getId();
+        afterCommit(() -> evict(email, studentId));
+    }
+
+    private void evict(String email, Long studentId) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL);
+        if (cache == null) {
+            return;
+        }
+        if (email != null) {
+            cache.evict(email);
+        }
+        // Email có thể vừa đổi: bỏ cả entry của sinh viên này dưới email cũ (quét cache, sửa sinh viên hiếm khi xảy ra)
+        if (studentId != null && cache.getNativeCache() instanceof Cache<?, ?> caffeine) {
+            caffeine.asMap().values().removeIf(value -> value instanceof Student cached && studentId.equals(cached.getId()));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
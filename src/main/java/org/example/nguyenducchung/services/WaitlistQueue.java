@@ -0,0 +1,114 @@
+package org.example.nguyenducchung.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hàng đợi FIFO của một khóa học trong bộ nhớ. Mỗi sinh viên giữ một ô theo thứ tự vào hàng; rời hàng
+ * chỉ đánh dấu ô trống. Cây Fenwick trên các ô cho vị trí của một sinh viên trong O(log n) thay vì
+ * đếm những người đứng trước. Các ô trống được dồn lại khi mảng đầy.
+ */
+final class WaitlistQueue {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] students = new long[INITIAL_CAPACITY]; // student id theo ô, 0 = ô trống
+    private int[] tree = new int[INITIAL_CAPACITY + 1];    // Fenwick 1-based, 1 cho mỗi ô còn người
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private int head;
+    private int tail;
+
+    synchronized boolean add(long studentId) {
+        if (slots.containsKey(studentId)) {
+            return false;
+        }
+        if (tail == students.length) {
+            compact();
+        }
+        students[tail] = studentId;
+        slots.put(studentId, tail);
+        update(tail, 1);
+        tail++;
+        return true;
+    }
+
+    synchronized boolean remove(long studentId) {
+        Integer slot = slots.remove(studentId);
+        if (slot == null) {
+            return false;
+        }
+        students[slot] = 0;
+        update(slot, -1);
+        return true;
+    }
+
+    /**
+     * Vị trí tính từ 1, 0 nếu sinh viên không có trong hàng.
+     */
+    synchronized int position(long studentId) {
+        Integer slot = slots.get(studentId);
+        if (slot == null) {
+            return 0;
+        }
+        int sum = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    /**
+     * Tối đa limit sinh viên đầu hàng, theo thứ tự.
+     */
+    synchronized List<Long> first(int limit) {
+        while (head < tail && students[head] == 0) {
+            head++;
+        }
+        List<Long> first = new ArrayList<>(Math.min(limit, slots.size()));
+        for (int slot = head; slot < tail && first.size() < limit; slot++) {
+            if (students[slot] != 0) {
+                first.add(students[slot]);
+            }
+        }
+        return first;
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Dồn các ô còn người về đầu mảng (nới mảng nếu còn hơn nửa số ô) và dựng lại cây trong O(n)
+    private void compact() {
+        int live = slots.size();
+        long[] compacted = new long[Math.max(INITIAL_CAPACITY, live * 2)];
+        int next = 0;
+        for (int slot = head; slot < tail; slot++) {
+            if (students[slot] != 0) {
+                compacted[next] = students[slot];
+                slots.put(students[slot], next);
+                next++;
+            }
+        }
+        students = compacted;
+        head = 0;
+        tail = next;
+
+        tree = new int[compacted.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= tail) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
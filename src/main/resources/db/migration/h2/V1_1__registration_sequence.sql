@@ -0,0 +1,8 @@
+-- Ban H2 cua db/migration/sqlserver/V1_1__registration_sequence.sql. H2 bo duoc IDENTITY tai cho.
+
+alter table registration alter column id drop identity;
+alter table registration add constraint uk_registration_student_course unique (student_id, course_id);
+
+-- Bo toi uu pooled cap phat dai (gia tri - 49 .. gia tri] nen gia tri dau tien phai >= max(id) + 50
+create sequence registration_seq start with 50 increment by 50;
+alter sequence registration_seq restart with (select coalesce(max(id), 0) + 50 from registration);
@@ -0,0 +1,16 @@
+-- Ban H2 cua db/migration/sqlserver/V1_2__enrollment_summary.sql.
+
+create table student_enrollment_summary (
+    student_id bigint not null,
+    registration_count integer not null,
+    version bigint,
+    primary key (student_id)
+);
+
+create table student_enrollment_summary_course (
+    student_id bigint not null,
+    course_id bigint not null,
+    primary key (student_id, course_id)
+);
+
+alter table student_enrollment_summary_course add constraint fk_summary_course_summary foreign key (student_id) references student_enrollment_summary;
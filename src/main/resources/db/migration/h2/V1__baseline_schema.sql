@@ -0,0 +1,27 @@
+-- Ban H2 (test) cua db/migration/sqlserver/V1__baseline_schema.sql, giu cung ten bang, cot va rang buoc.
+
+create table course (
+    id bigint generated by default as identity,
+    name varchar(255),
+    start_time timestamp(6),
+    end_time timestamp(6),
+    price bigint,
+    primary key (id)
+);
+
+create table student (
+    id bigint generated by default as identity,
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    primary key (id)
+);
+
+create table registration (
+    id bigint generated by default as identity,
+    student_id bigint,
+    course_id bigint,
+    price bigint,
+    registered_date timestamp(6),
+    primary key (id)
+);
@@ -0,0 +1,9 @@
+-- Ban H2 cua db/migration/sqlserver/V2__hot_query_indexes.sql. Khoa ngoai duoc them sau index de H2
+-- dung lai index nay thay vi tu tao index rieng cho khoa ngoai.
+
+create unique index ux_student_email on student (email);
+create index ix_registration_course_id on registration (course_id);
+create index ix_course_start_time on course (start_time);
+
+alter table registration add constraint fk_registration_course foreign key (course_id) references course;
+alter table registration add constraint fk_registration_student foreign key (student_id) references student;
@@ -0,0 +1,2 @@
+-- Suc chua cua khoa hoc; null = khong gioi han
+alter table course add column capacity integer;
@@ -0,0 +1,39 @@
+-- registration.id: IDENTITY (schema cu do ddl-auto=update tao) -> id lay tu registration_seq (Hibernate pooled,
+-- allocationSize 50) de insert Registration duoc gom JDBC batch.
+-- SQL Server khong bo duoc IDENTITY cua mot cot nen bang duoc tao lai va chep du lieu sang. Rang buoc unique
+-- (student_id, course_id) duoc tao cung bang: du lieu cu co dang ky trung phai lam sach truoc khi migrate.
+
+create table registration_new (
+    id bigint not null,
+    student_id bigint,
+    course_id bigint,
+    price bigint,
+    registered_date datetime2(6),
+    constraint pk_registration primary key (id)
+);
+GO
+
+insert into registration_new (id, student_id, course_id, price, registered_date)
+select id, student_id, course_id, price, registered_date from registration;
+GO
+
+drop table registration;
+GO
+
+exec sp_rename 'registration_new', 'registration';
+GO
+
+alter table registration add constraint uk_registration_student_course unique (student_id, course_id);
+alter table registration add constraint fk_registration_course foreign key (course_id) references course;
+alter table registration add constraint fk_registration_student foreign key (student_id) references student;
+GO
+
+-- ddl-auto=update co the da tao sequence (bat dau tu 1) tren database cu
+if object_id('registration_seq', 'SO') is not null
+    drop sequence registration_seq;
+GO
+
+-- Bo toi uu pooled cap phat dai (gia tri - 49 .. gia tri] nen gia tri dau tien phai >= max(id) + 50
+declare @start bigint = (select coalesce(max(id), 0) + 50 from registration);
+declare @sql nvarchar(200) = N'create sequence registration_seq start with ' + cast(@start as nvarchar(20)) + N' increment by 50';
+exec sp_executesql @sql;
@@ -0,0 +1,17 @@
+-- Bang tom tat dang ky theo sinh vien (StudentEnrollmentSummary). Khong co o database cu: summary cua
+-- tung sinh vien duoc dung lai tu bang registration o lan dang ky dau tien.
+
+create table student_enrollment_summary (
+    student_id bigint not null,
+    registration_count int not null,
+    version bigint,
+    primary key (student_id)
+);
+
+create table student_enrollment_summary_course (
+    student_id bigint not null,
+    course_id bigint not null,
+    primary key (student_id, course_id)
+);
+
+alter table student_enrollment_summary_course add constraint fk_summary_course_summary foreign key (student_id) references student_enrollment_summary;
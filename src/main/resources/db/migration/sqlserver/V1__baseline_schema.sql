@@ -0,0 +1,32 @@
+-- Schema truoc khi dung Flyway: course, student, registration nhu ddl-auto=update da tao tren SQL Server
+-- (ten khoa ngoai Hibernate tu sinh khac o database cu, cac migration sau khong dua vao ten do).
+-- Database da co san duoc baseline o version nay (spring.flyway.baseline-version) va chay tu V1_1.
+
+create table course (
+    id bigint identity not null,
+    name varchar(255),
+    start_time datetime2(6),
+    end_time datetime2(6),
+    price bigint,
+    primary key (id)
+);
+
+create table student (
+    id bigint identity not null,
+    email varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    primary key (id)
+);
+
+create table registration (
+    id bigint identity not null,
+    student_id bigint,
+    course_id bigint,
+    price bigint,
+    registered_date datetime2(6),
+    primary key (id)
+);
+
+alter table registration add constraint fk_registration_course foreign key (course_id) references course;
+alter table registration add constraint fk_registration_student foreign key (student_id) references student;
@@ -0,0 +1,14 @@
+-- Index cho cac truy van nong. SQL Server khong tu tao index cho khoa ngoai.
+-- registration(student_id, course_id) da co index tu uk_registration_student_course
+-- (findByStudentId, findByStudentIdAndCourseId dung cot dau student_id).
+
+-- findByEmail / findByEmailIn; that bai neu du lieu cu co email trung, can lam sach truoc khi migrate.
+-- email cho phep null: unique index cua SQL Server chi nhan mot gia tri null, nen chi danh index cho
+-- email khac null (email = ? luon loai null nen van dung duoc index nay)
+create unique index ux_student_email on student (email) where email is not null;
+
+-- Danh sach lop theo khoa hoc, khoa ngoai registration -> course
+create index ix_registration_course_id on registration (course_id);
+
+-- Loc khoa hoc theo thoi gian bat dau (findByStudentAndCourseStartTimeAfter, khoa hoc sap mo)
+create index ix_course_start_time on course (start_time);
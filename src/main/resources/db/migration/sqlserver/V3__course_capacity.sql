@@ -0,0 +1,2 @@
+-- Suc chua cua khoa hoc; null = khong gioi han (khoa hoc cu giu nguyen hanh vi)
+alter table course add capacity int null;
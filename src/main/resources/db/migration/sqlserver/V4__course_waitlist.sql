@@ -0,0 +1,13 @@
+-- Danh sach cho theo khoa hoc (FIFO theo id). Index (course_id, id) cho thu tu trong tung khoa hoc.
+create table waitlist_entry (
+    id bigint identity not null,
+    course_id bigint not null,
+    student_id bigint not null,
+    joined_date datetime2(6),
+    primary key (id),
+    constraint uk_waitlist_course_student unique (course_id, student_id),
+    constraint fk_waitlist_course foreign key (course_id) references course (id),
+    constraint fk_waitlist_student foreign key (student_id) references student (id)
+);
+
+create index ix_waitlist_course_id on waitlist_entry (course_id, id);
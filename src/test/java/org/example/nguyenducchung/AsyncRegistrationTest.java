@@ -0,0 +1,140 @@
+package org.example.nguyenducchung;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.nguyenducchung.models.dtos.RegistrationTicket;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "registration.async.enabled=true")
+@AutoConfigureMockMvc
+class AsyncRegistrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testAsyncRegister_ReturnsTicketThenOutcome() throws Exception {
+        studentRepository.save(Student.builder().email("student@example.com").build());
+        Course course = futureCourse("Java Basics", 1000L);
+
+        String body = mockMvc.perform(post("/api/registrations/async/register")
+                        .param("studentEmail", "student@example.com")
+                        .param("courseId", course.getId().toString()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        String ticketId = objectMapper.readTree(body).get("ticketId").asText();
+
+        JsonNode ticket = awaitOutcome(ticketId);
+        assertEquals("REGISTERED", ticket.get("status").asText());
+        assertEquals(1000L, ticket.get("price").asLong());
+        assertEquals(1, registrationRepository.count());
+
+        mockMvc.perform(get("/api/registrations/async/unknown"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/registrations/async/register")
+                        .param("studentEmail", " ")
+                        .param("courseId", course.getId().toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRegisterBatch_AppliesRulesPerTicketInOneTransaction() {
+        studentRepository.save(Student.builder().email("student@example.com").build());
+        Course first = futureCourse("Java Basics", 1000L);
+        Course second = futureCourse("Spring Boot", 1000L);
+        Course third = futureCourse("Microservices", 2000L);
+
+        List<RegistrationTicket> results = registrationService.registerBatch(List.of(
+                ticket("1", "student@example.com", first.getId()),
+                ticket("2", "student@example.com", second.getId()),
+                ticket("3", "student@example.com", first.getId()),
+                ticket("4", "unknown@example.com", first.getId()),
+                ticket("5", "student@example.com", third.getId())));
+
+        assertEquals(RegistrationTicket.Status.REGISTERED, results.get(0).getStatus());
+        assertEquals(RegistrationTicket.Status.REGISTERED, results.get(1).getStatus());
+        assertEquals("Student has already registered for this course", results.get(2).getError());
+        assertEquals("Student not found", results.get(3).getError());
+        assertEquals(1500L, results.get(4).getPrice());
+        assertEquals(3, registrationRepository.count());
+    }
+
+    private JsonNode awaitOutcome(String ticketId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(get("/api/registrations/async/{ticketId}", ticketId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode ticket = objectMapper.readTree(body);
+            if (!"PENDING".equals(ticket.get("status").asText()) || System.currentTimeMillis() > deadline) {
+                return ticket;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private RegistrationTicket ticket(String ticketId, String studentEmail, Long courseId) {
+        return RegistrationTicket.builder()
+                .ticketId(ticketId)
+                .studentEmail(studentEmail)
+                .courseId(courseId)
+                .status(RegistrationTicket.Status.PENDING)
+                .build();
+    }
+
+    private Course futureCourse(String name, Long price) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(price)
+                .build());
+    }
+}
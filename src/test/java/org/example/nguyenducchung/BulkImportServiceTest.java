@@ -0,0 +1,156 @@
+package org.example.nguyenducchung;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.dtos.ImportReport;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.BulkImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkImportServiceTest {
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    private static ReadableByteChannel csv(String content) {
+        return Channels.newChannel(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testImportStudents_UpsertsByEmailAndRejectsInvalidRows() throws Exception {
+        studentRepository.save(Student.builder().email("an@example.com").firstName("Old").lastName("Name").build());
+        // Nạp vào cache để kiểm tra import xóa cache
+        assertEquals("Old", studentRepository.findByEmail("an@example.com").getFirstName());
+
+        ImportReport report = bulkImportService.importStudents(csv("email,firstName,lastName\n"
+                + "an@example.com,An,Nguyễn\n"
+                + " binh@example.com , \"Bình, Văn\" ,\"Trần \"\"B\"\"\"\n"
+                + "not-an-email,Foo,Bar\n"
+                + "\n"
+                + "chi@example.com,Chi,Lê\n"
+                + "chi@example.com,Chi,Phạm\r\n"));
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, report.getRejected());
+        assertEquals(4, report.getRejections().get(0).getLine());
+        assertEquals("Invalid email", report.getRejections().get(0).getReason());
+
+        Student an = studentRepository.findByEmail("an@example.com");
+        assertEquals("An", an.getFirstName());
+        assertEquals("Nguyễn", an.getLastName());
+        Student binh = studentRepository.findByEmail("binh@example.com");
+        assertEquals("Bình, Văn", binh.getFirstName());
+        assertEquals("Trần \"B\"", binh.getLastName());
+        assertEquals("Phạm", studentRepository.findByEmail("chi@example.com").getLastName());
+        assertEquals(3, studentRepository.count());
+    }
+
+    @Test
+    void testImportCourses_UpsertsByNameAndStartTime() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 9, 1, 8, 0);
+        Course existing = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(Date.from(start.atZone(ZoneId.systemDefault()).toInstant()))
+                .endTime(Date.from(start.plusMonths(1).atZone(ZoneId.systemDefault()).toInstant()))
+                .price(1000L)
+                .build());
+
+        ImportReport report = bulkImportService.importCourses(csv("""
+                name,startTime,endTime,price
+                Java Basics,2030-09-01 08:00,2030-12-01T08:00:00,1200
+                Java Basics,2031-02-01,2031-05-01,1200
+                Spring Boot,2030-02-30,2030-05-01,2000
+                Spring Boot,2030-09-01,2030-08-01,2000
+                Spring Boot,2030-09-01,2030-12-01,-5
+                ,2030-09-01,2030-12-01,100
+                """));
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(4, report.getRejected());
+        assertEquals(List.of("Invalid start or end time", "End time must be after start time", "Invalid price", "Missing course name"),
+                report.getRejections().stream().map(rejection -> rejection.getReason()).toList());
+
+        assertEquals(1200L, courseRepository.findById(existing.getId()).orElseThrow().getPrice());
+        assertEquals(2, courseRepository.count());
+    }
+
+    @Test
+    void testImportStudents_ManyRowsAcrossBatches() throws Exception {
+        int rows = 20_000;
+        StringBuilder content = new StringBuilder("email,firstName,lastName\n");
+        for (int i = 0; i < rows; i++) {
+            content.append("student").append(i).append("@example.com,First").append(i).append(",Last\n");
+        }
+
+        ImportReport report = bulkImportService.importStudents(csv(content.toString()));
+
+        log.info(String.format("Imported %d students in %d ms (%d rows/s)", report.getInserted(), report.getElapsedMillis(), report.getRowsPerSecond()));
+        assertEquals(rows, report.getInserted());
+        assertEquals(rows, studentRepository.count());
+        assertTrue(report.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    void testImportEndpoint_ReturnsReport() throws Exception {
+        mockMvc.perform(post("/api/admin/imports/students")
+                        .contentType("text/csv")
+                        .content("email,firstName,lastName\nan@example.com,An,Nguyen\nbad,,\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entity").value("students"))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections[0].line").value(3));
+    }
+}
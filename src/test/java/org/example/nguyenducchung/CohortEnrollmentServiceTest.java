@@ -0,0 +1,140 @@
+package org.example.nguyenducchung;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.dtos.CohortEnrollmentReport;
+import org.example.nguyenducchung.models.dtos.CohortEnrollmentResult;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Registration;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.CohortEnrollmentService;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+class CohortEnrollmentServiceTest {
+    @Autowired
+    private CohortEnrollmentService cohortEnrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    private Course saveCourse(String name, long price) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(price)
+                .build());
+    }
+
+    @Test
+    void testEnrollCohort_AppliesDuplicateAndDiscountRules() {
+        int cohortSize = 2000;
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < cohortSize; i++) {
+            students.add(Student.builder().email("student" + i + "@example.com").build());
+        }
+        students = studentRepository.saveAll(students);
+
+        Course course1 = saveCourse("Java Basics", 1000L);
+        Course course2 = saveCourse("Spring Boot", 2000L);
+        Course cohortCourse = saveCourse("Microservices", 3000L);
+
+        // student0 đã có 2 đăng ký -> được giảm giá; student1 đã đăng ký khóa này
+        registrationRepository.saveAll(List.of(
+                Registration.builder().student(students.get(0)).course(course1).price(1000L).registeredDate(new Date()).build(),
+                Registration.builder().student(students.get(0)).course(course2).price(2000L).registeredDate(new Date()).build(),
+                Registration.builder().student(students.get(1)).course(cohortCourse).price(3000L).registeredDate(new Date()).build()));
+
+        List<String> emails = new ArrayList<>(students.stream().map(Student::getEmail).toList());
+        emails.add("missing@example.com");
+
+        CohortEnrollmentReport report = cohortEnrollmentService.enrollCohort(cohortCourse.getId(), emails);
+        log.info(String.format("Cohort enrollment: %d rows in %d ms (%d rows/s)",
+                report.getEnrolled(), report.getElapsedMillis(), report.getRowsPerSecond()));
+
+        assertEquals(cohortSize - 1, report.getEnrolled());
+        assertEquals(2, report.getSkipped());
+        assertEquals(2250L, report.getResults().get(0).getPrice());
+        assertEquals(CohortEnrollmentResult.Status.ALREADY_REGISTERED, report.getResults().get(1).getStatus());
+        assertEquals(3000L, report.getResults().get(2).getPrice());
+        assertEquals(CohortEnrollmentResult.Status.STUDENT_NOT_FOUND, report.getResults().get(cohortSize).getStatus());
+        assertEquals(cohortSize + 2, registrationRepository.count());
+    }
+
+    @Test
+    void testEnrollCohort_ConcurrentDuplicateIsReportedAndOthersEnrolled() {
+        List<Student> students = studentRepository.saveAll(List.of(
+                Student.builder().email("first@example.com").build(),
+                Student.builder().email("racer@example.com").build(),
+                Student.builder().email("last@example.com").build()));
+        Course cohortCourse = saveCourse("Microservices", 3000L);
+        // racer đã có summary, rồi một đăng ký khác ghi thẳng vào DB mà summary chưa thấy (như một đăng ký
+        // đồng thời): chỉ ràng buộc unique phát hiện được trùng
+        registrationService.registerCourse("racer@example.com", saveCourse("Java Basics", 1000L).getId());
+        jdbcTemplate.update("insert into registration (id, student_id, course_id, price, registered_date) "
+                + "values (next value for registration_seq, ?, ?, 3000, current_timestamp)", students.get(1).getId(), cohortCourse.getId());
+
+        CohortEnrollmentReport report = cohortEnrollmentService.enrollCohort(cohortCourse.getId(),
+                students.stream().map(Student::getEmail).toList());
+
+        assertEquals(List.of(CohortEnrollmentResult.Status.ENROLLED, CohortEnrollmentResult.Status.ALREADY_REGISTERED,
+                        CohortEnrollmentResult.Status.ENROLLED),
+                report.getResults().stream().map(CohortEnrollmentResult::getStatus).toList());
+        assertEquals(2, report.getEnrolled());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "select count(*) from registration where course_id = ?", Integer.class, cohortCourse.getId()));
+    }
+
+    @Test
+    void testEnrollCohort_Fail_CourseAlreadyStarted() {
+        Course startedCourse = courseRepository.save(Course.builder()
+                .name("Spring Boot")
+                .startTime(new Date(System.currentTimeMillis() - 86400000)) // Hôm qua
+                .price(2000L)
+                .build());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                cohortEnrollmentService.enrollCohort(startedCourse.getId(), List.of("student@example.com")));
+
+        assertEquals("Cannot register for a course that has already started", exception.getMessage());
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.nguyenducchung;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.dtos.AvailableCourse;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.services.BulkImportService;
+import org.example.nguyenducchung.services.CourseAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseAvailabilityIndexTest {
+    private static final long DAY = 86400000L;
+
+    @Autowired
+    private CourseAvailabilityIndex courseAvailabilityIndex;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Các test khác xóa course bằng câu lệnh bulk (không qua listener) trong cùng Spring context
+    @BeforeEach
+    void reloadIndex() {
+        courseAvailabilityIndex.reload();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        courseRepository.deleteAllInBatch();
+        courseAvailabilityIndex.reload();
+    }
+
+    private Course saveCourse(String name, long startsInMillis, long price) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + startsInMillis))
+                .endTime(new Date(System.currentTimeMillis() + startsInMillis + DAY))
+                .price(price)
+                .build());
+    }
+
+    private List<String> names(List<AvailableCourse> courses) {
+        return courses.stream().map(AvailableCourse::getName).toList();
+    }
+
+    @Test
+    void courseChanges_AreAppliedIncrementally() {
+        Course course = saveCourse("Java", DAY, 1000L);
+        saveCourse("Started", -DAY, 1000L);
+
+        assertEquals(List.of("Java"), names(courseAvailabilityIndex.search(null, null, null, null, 50)));
+
+        course.setPrice(500L);
+        course = courseRepository.save(course);
+        assertEquals(500L, courseAvailabilityIndex.search(null, null, null, null, 50).get(0).getPrice());
+
+        course.setStartTime(new Date(System.currentTimeMillis() - 1000));
+        course = courseRepository.save(course);
+        assertTrue(courseAvailabilityIndex.search(null, null, null, null, 50).isEmpty());
+
+        course.setStartTime(new Date(System.currentTimeMillis() + 2 * DAY));
+        course = courseRepository.save(course);
+        assertEquals(1, courseAvailabilityIndex.size());
+
+        courseRepository.delete(course);
+        assertEquals(0, courseAvailabilityIndex.size());
+    }
+
+    @Test
+    void coursesExpireWhenTheyStart() throws InterruptedException {
+        saveCourse("Starting soon", 300, 1000L);
+        saveCourse("Tomorrow", DAY, 1000L);
+        assertEquals(List.of("Starting soon", "Tomorrow"), names(courseAvailabilityIndex.search(null, null, null, null, 50)));
+
+        Thread.sleep(400);
+
+        assertEquals(List.of("Tomorrow"), names(courseAvailabilityIndex.search(null, null, null, null, 50)));
+        assertEquals(1, courseAvailabilityIndex.size());
+    }
+
+    @Test
+    void importedCourses_AreIndexed() throws Exception {
+        String start = LocalDateTime.now().plusDays(3).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        String end = LocalDateTime.now().plusDays(10).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        String csv = "name,startTime,endTime,price\nImported," + start + "," + end + ",700\n";
+
+        bulkImportService.importCourses(Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals(List.of("Imported"), names(courseAvailabilityIndex.search(null, null, null, null, 50)));
+    }
+
+    @Test
+    void searchDuringReload_AlwaysSeesFullIndex() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            saveCourse("Reloaded " + i, DAY + i * 60_000L, 1000L);
+        }
+        courseAvailabilityIndex.reload();
+
+        ExecutorService reloader = Executors.newSingleThreadExecutor();
+        Future<?> reloads = reloader.submit(() -> {
+            for (int i = 0; i < 20; i++) {
+                courseAvailabilityIndex.reload();
+            }
+        });
+        while (!reloads.isDone()) {
+            assertEquals(CourseAvailabilityIndex.MAX_RESULTS, courseAvailabilityIndex.search(null, null, null, null, 500).size());
+            assertEquals(500, courseAvailabilityIndex.size());
+        }
+        reloads.get();
+        reloader.shutdown();
+    }
+
+    @Test
+    void availableEndpoint_FiltersByTimeWindowAndPrice() throws Exception {
+        saveCourse("Cheap soon", DAY, 500L);
+        saveCourse("Expensive soon", DAY + 1000, 5000L);
+        saveCourse("Cheap later", 10 * DAY, 500L);
+        saveCourse("Started", -DAY, 500L);
+
+        String to = Instant.ofEpochMilli(System.currentTimeMillis() + 5 * DAY).toString();
+        mockMvc.perform(get("/api/courses/available").param("to", to))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Cheap soon"))
+                .andExpect(jsonPath("$[1].name").value("Expensive soon"));
+
+        mockMvc.perform(get("/api/courses/available").param("maxPrice", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Cheap soon"))
+                .andExpect(jsonPath("$[1].name").value("Cheap later"));
+
+        mockMvc.perform(get("/api/courses/available").param("minPrice", "1000").param("maxPrice", "100"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("minPrice must not exceed maxPrice"));
+    }
+
+    @Test
+    void search_ServesLargeCatalogUnderOneMillisecond() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 100_000; i++) {
+            courseAvailabilityIndex.put(AvailableCourse.builder()
+                    .id(1_000_000L + i)
+                    .name("Course " + i)
+                    .startTime(new Date(now + DAY + i * 60_000L))
+                    .price((long) (i % 100) * 100)
+                    .build());
+        }
+        Date from = new Date(now + 30 * DAY);
+        Date to = new Date(now + 60 * DAY);
+
+        for (int i = 0; i < 2_000; i++) {
+            courseAvailabilityIndex.search(from, to, 2000L, 3000L, 50); // warm-up
+        }
+        int queries = 10_000;
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            assertEquals(50, courseAvailabilityIndex.search(from, to, 2000L, 3000L, 50).size());
+        }
+        long averageMicros = (System.nanoTime() - startedAt) / queries / 1000;
+        log.info(String.format("Course availability search over 100k courses: %d us/query", averageMicros));
+        assertTrue(averageMicros < 1000, "average " + averageMicros + " us");
+    }
+}
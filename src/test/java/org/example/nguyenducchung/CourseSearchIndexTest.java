@@ -0,0 +1,150 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.dtos.CourseSuggestion;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.services.CourseSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseSearchIndexTest {
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Các test khác xóa course bằng câu lệnh bulk (không qua listener) trong cùng Spring context
+    @BeforeEach
+    void reloadIndex() {
+        courseSearchIndex.reload();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        courseRepository.deleteAllInBatch();
+        courseSearchIndex.reload();
+    }
+
+    private Course saveCourse(String name) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+    }
+
+    private List<String> search(String query) {
+        return courseSearchIndex.search(query, 10).stream().map(CourseSuggestion::getName).toList();
+    }
+
+    @Test
+    void search_IgnoresCaseAndVietnameseAccents() {
+        saveCourse("Lập trình Java nâng cao");
+        saveCourse("Đồ họa máy tính");
+
+        assertEquals(List.of("Lập trình Java nâng cao"), search("lap trinh"));
+        assertEquals(List.of("Lập trình Java nâng cao"), search("LẬP TRÌNH"));
+        assertEquals(List.of("Lập trình Java nâng cao"), search("nâng"));
+        assertEquals(List.of("Đồ họa máy tính"), search("do hoa"));
+        assertEquals(List.of("Đồ họa máy tính"), search("đồ"));
+    }
+
+    @Test
+    void search_RanksExactWordsBeforePrefixesAndShorterNamesFirst() {
+        saveCourse("JavaScript cơ bản");
+        saveCourse("Java Basics");
+        saveCourse("Java");
+        saveCourse("Python");
+
+        assertEquals(List.of("Java", "Java Basics", "JavaScript cơ bản"), search("java"));
+        assertEquals(List.of("Java Basics"), search("java bas"));
+        assertEquals(List.of("Java Basics", "JavaScript cơ bản"), search("java ba"));
+        assertEquals(List.of("JavaScript cơ bản"), search("co ban jav"));
+        assertTrue(search("ruby").isEmpty());
+        assertTrue(search("  ").isEmpty());
+    }
+
+    @Test
+    void courseChanges_AreAppliedIncrementally() {
+        Course course = saveCourse("Kiến trúc phần mềm");
+        saveCourse("Kiểm thử phần mềm");
+        assertEquals(2, search("phan mem").size());
+
+        course.setName("Thiết kế hệ thống");
+        courseRepository.save(course);
+        assertEquals(List.of("Kiểm thử phần mềm"), search("phan mem"));
+        assertEquals(List.of("Thiết kế hệ thống"), search("thiet ke"));
+        assertEquals(List.of("Kiểm thử phần mềm"), search("ki"));
+
+        courseRepository.delete(courseRepository.findById(course.getId()).orElseThrow());
+        assertTrue(search("thiet").isEmpty());
+        assertEquals(1, courseSearchIndex.size());
+    }
+
+    @Test
+    void courseChangesDuringReload_AreNotLost() throws Exception {
+        List<Course> catalog = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            catalog.add(Course.builder().name("Catalog " + i).price(1000L).build());
+        }
+        courseRepository.saveAll(catalog);
+
+        // Khóa học lưu trong lúc đang nạp lại phải tìm thấy được ngay sau commit
+        ExecutorService reloader = Executors.newSingleThreadExecutor();
+        AtomicBoolean saving = new AtomicBoolean(true);
+        Future<?> reloads = reloader.submit(() -> {
+            while (saving.get()) {
+                courseSearchIndex.reload();
+            }
+        });
+        try {
+            for (int i = 0; i < 100; i++) {
+                saveCourse("Concurrent " + i);
+                assertEquals(List.of("Concurrent " + i), search("concurrent " + i));
+            }
+        }
+        finally {
+            saving.set(false);
+            reloads.get();
+            reloader.shutdown();
+        }
+    }
+
+    @Test
+    void searchEndpoint_ReturnsRankedSuggestions() throws Exception {
+        saveCourse("Cơ sở dữ liệu");
+        saveCourse("Cơ sở dữ liệu phân tán");
+
+        mockMvc.perform(get("/api/courses/search").param("q", "co so du l"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Cơ sở dữ liệu"))
+                .andExpect(jsonPath("$[1].name").value("Cơ sở dữ liệu phân tán"));
+    }
+}
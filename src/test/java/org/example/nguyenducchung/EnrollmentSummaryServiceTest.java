@@ -0,0 +1,137 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Registration;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.models.entities.StudentEnrollmentSummary;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.EnrollmentSummaryService;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class EnrollmentSummaryServiceTest {
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private EnrollmentSummaryService enrollmentSummaryService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    private Course saveCourse(String name) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+    }
+
+    private StudentEnrollmentSummary readSummary(Long studentId) {
+        return transactionTemplate.execute(status -> {
+            StudentEnrollmentSummary summary = summaryRepository.findById(studentId).orElseThrow();
+            summary.setCourseIds(new HashSet<>(summary.getCourseIds()));
+            return summary;
+        });
+    }
+
+    @Test
+    void testSummary_MaintainedByRegisterAndUnregister() {
+        Student student = studentRepository.save(Student.builder().email("student@example.com").build());
+        Course course1 = saveCourse("Java Basics");
+        Course course2 = saveCourse("Spring Boot");
+        Course course3 = saveCourse("Microservices");
+
+        registrationService.registerCourse(student.getEmail(), course1.getId());
+        registrationService.registerCourse(student.getEmail(), course2.getId());
+        registrationService.registerCourse(student.getEmail(), course3.getId());
+        registrationService.unregisterCourse(student.getEmail(), course2.getId());
+
+        StudentEnrollmentSummary summary = readSummary(student.getId());
+        assertEquals(2, summary.getRegistrationCount());
+        assertEquals(Set.of(course1.getId(), course3.getId()), summary.getCourseIds());
+        assertEquals(750L, registrationRepository.findByStudentIdAndCourseId(student.getId(), course3.getId())
+                .orElseThrow().getPrice());
+    }
+
+    @Test
+    void testRebuildAll_RepairsCorruptedSummary() {
+        Student student = studentRepository.save(Student.builder().email("student@example.com").build());
+        Course course1 = saveCourse("Java Basics");
+        Course course2 = saveCourse("Spring Boot");
+        registrationService.registerCourse(student.getEmail(), course1.getId());
+        registrationService.registerCourse(student.getEmail(), course2.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            StudentEnrollmentSummary summary = summaryRepository.findById(student.getId()).orElseThrow();
+            summary.getCourseIds().clear();
+            summary.setRegistrationCount(7);
+        });
+
+        assertEquals(1, enrollmentSummaryService.rebuildAll());
+
+        StudentEnrollmentSummary summary = readSummary(student.getId());
+        assertEquals(2, summary.getRegistrationCount());
+        assertEquals(Set.of(course1.getId(), course2.getId()), summary.getCourseIds());
+    }
+
+    @Test
+    void testSnapshot_WithoutSummary_IsCountedAndStaysCached() {
+        Student student = studentRepository.save(Student.builder().email("student@example.com").build());
+        Course course1 = saveCourse("Java Basics");
+        Course course2 = saveCourse("Spring Boot");
+        // Đăng ký có sẵn từ trước khi có summary
+        for (Course course : new Course[]{course1, course2}) {
+            registrationRepository.save(Registration.builder()
+                    .student(student)
+                    .course(course)
+                    .price(course.getPrice())
+                    .registeredDate(new Date())
+                    .build());
+        }
+
+        EnrollmentSummaryService.Snapshot snapshot = enrollmentSummaryService.snapshot(student.getId());
+        assertEquals(2, snapshot.registrationCount());
+        assertEquals(Set.of(course1.getId(), course2.getId()), snapshot.courseIds());
+
+        // Dựng summary tạm để đọc không được xóa chính snapshot vừa cache
+        registrationRepository.deleteAllInBatch();
+        assertEquals(snapshot, enrollmentSummaryService.snapshot(student.getId()));
+        assertEquals(0, summaryRepository.count());
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.services.IdempotencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+    private final IdempotencyService idempotencyService = new IdempotencyService(1000, Duration.ofMinutes(1), Duration.ofSeconds(10));
+
+    @Test
+    void testExecute_ConcurrentRequestsWithSameKey_RunOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        int threads = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<ResponseEntity<?>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return idempotencyService.execute("student@example.com", "key", "register:student@example.com:1", () -> {
+                    executions.incrementAndGet();
+                    sleep(200);
+                    return ResponseEntity.ok("registered");
+                });
+            }));
+        }
+        start.countDown();
+
+        for (Future<ResponseEntity<?>> future : futures) {
+            ResponseEntity<?> response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("registered", response.getBody());
+        }
+        executor.shutdown();
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testExecute_FailedRequestIsNotStored() {
+        assertThrows(RuntimeException.class, () -> idempotencyService.execute("student@example.com", "key", "request", () -> {
+            throw new RuntimeException("boom");
+        }));
+        ResponseEntity<?> retry = idempotencyService.execute("student@example.com", "key", "request", () -> ResponseEntity.ok("ok"));
+        assertEquals("ok", retry.getBody());
+
+        idempotencyService.execute("student@example.com", "server-error", "request", () -> ResponseEntity.internalServerError().build());
+        ResponseEntity<?> afterServerError = idempotencyService.execute("student@example.com", "server-error", "request", () -> ResponseEntity.ok("ok"));
+        assertEquals(HttpStatus.OK, afterServerError.getStatusCode());
+    }
+
+    @Test
+    void testExecute_BusinessRejectionIsStoredButThrottlingIsNot() {
+        AtomicInteger executions = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            idempotencyService.execute("student@example.com", "rejected", "request", () -> {
+                executions.incrementAndGet();
+                return ResponseEntity.badRequest().body("Course is full");
+            });
+        }
+        assertEquals(1, executions.get());
+
+        idempotencyService.execute("student@example.com", "throttled", "request", () -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+        ResponseEntity<?> afterThrottled = idempotencyService.execute("student@example.com", "throttled", "request", () -> ResponseEntity.ok("ok"));
+        assertEquals(HttpStatus.OK, afterThrottled.getStatusCode());
+    }
+
+    @Test
+    void testExecute_SameKeyFromDifferentClients_IsNotShared() {
+        ResponseEntity<?> first = idempotencyService.execute("a@example.com", "key", "register:a@example.com:1", () -> ResponseEntity.ok("a"));
+        ResponseEntity<?> second = idempotencyService.execute("b@example.com", "key", "register:b@example.com:1", () -> ResponseEntity.ok("b"));
+
+        assertEquals("a", first.getBody());
+        assertEquals("b", second.getBody());
+        assertNull(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testExecute_WithoutKey_AlwaysRuns() {
+        AtomicInteger executions = new AtomicInteger();
+        idempotencyService.execute("student@example.com", null, "request", () -> ResponseEntity.ok(executions.incrementAndGet()));
+        idempotencyService.execute("student@example.com", null, "request", () -> ResponseEntity.ok(executions.incrementAndGet()));
+        assertEquals(2, executions.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+@SpringBootTest
+class JpaRegistrationRulesTest extends RegistrationRulesContractTest {
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Override
+    protected List<Course> register(String studentEmail, Long courseId) {
+        return registrationService.registerCourse(studentEmail, courseId);
+    }
+
+    @Override
+    protected void unregister(String studentEmail, Long courseId) {
+        registrationService.unregisterCourse(studentEmail, courseId);
+    }
+}
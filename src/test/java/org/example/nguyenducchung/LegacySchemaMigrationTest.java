@@ -0,0 +1,106 @@
+package org.example.nguyenducchung;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.nguyenducchung.models.entities.Registration;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Database cũ do ddl-auto=update tạo (registration.id IDENTITY, khóa ngoại tên ngẫu nhiên, chưa có bảng
+ * flyway_schema_history): Flyway baseline ở V1 rồi phải chạy đủ các migration sau, giữ nguyên dữ liệu cũ.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1"
+})
+class LegacySchemaMigrationTest {
+    private static final String LEGACY_URL = "jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private static final long DAY = 86400000L;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @DynamicPropertySource
+    static void legacyDatabase(DynamicPropertyRegistry registry) {
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(LEGACY_URL, "sa", ""));
+        // Schema như Hibernate 6 ddl-auto=update đã tạo trên H2
+        legacy.execute("create table course (id bigint generated by default as identity, end_time timestamp(6), "
+                + "name varchar(255), price bigint, start_time timestamp(6), primary key (id))");
+        legacy.execute("create table student (id bigint generated by default as identity, email varchar(255), "
+                + "first_name varchar(255), last_name varchar(255), primary key (id))");
+        legacy.execute("create table registration (id bigint generated by default as identity, price bigint, "
+                + "registered_date timestamp(6), course_id bigint, student_id bigint, primary key (id))");
+        legacy.execute("alter table registration add constraint FK9jt4pfnhbvxa5tmvbvw5dm5y5 foreign key (course_id) references course");
+        legacy.execute("alter table registration add constraint FKbwbw4m3jnx4vpfjlbbh4dfdyb foreign key (student_id) references student");
+
+        Date start = new Date(System.currentTimeMillis() + DAY);
+        Date end = new Date(System.currentTimeMillis() + 10 * DAY);
+        for (int i = 1; i <= 3; i++) {
+            legacy.update("insert into course (name, start_time, end_time, price) values (?, ?, ?, 1000)", "Legacy " + i, start, end);
+        }
+        legacy.update("insert into student (email) values ('legacy@example.com'), ('other@example.com')");
+        // Id cũ không liên tục: sequence mới phải bắt đầu sau id lớn nhất
+        legacy.update("insert into registration (id, student_id, course_id, price, registered_date) values "
+                + "(7, 1, 1, 1000, current_timestamp), (1000, 1, 2, 1000, current_timestamp), (1001, 2, 1, 1000, current_timestamp)");
+
+        registry.add("spring.datasource.url", () -> LEGACY_URL);
+    }
+
+    @Test
+    void testLegacySchema_IsBaselinedAndMigrated() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertTrue(applied[0].getType().isBaseline());
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertEquals(List.of("1.1", "1.2", "2", "3", "4"), Arrays.stream(applied).skip(1)
+                .map(migration -> migration.getVersion().getVersion())
+                .toList());
+        assertEquals(0, flyway.info().pending().length);
+
+        // Ném SchemaManagementException nếu thiếu bảng/cột/sequence hoặc sai kiểu
+        entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects();
+
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from registration where id in (7, 1000, 1001)", Integer.class));
+        assertTrue(registrationRepository.findByStudentId(1L).stream().map(Registration::getId).toList().containsAll(List.of(7L, 1000L)));
+    }
+
+    @Test
+    void testLegacyStudent_RegistersWithNewIdAndCountsLegacyRegistrations() {
+        registrationService.registerCourse("legacy@example.com", 3L);
+
+        Registration registration = registrationRepository.findByStudentIdAndCourseId(1L, 3L).orElseThrow();
+        assertTrue(registration.getId() > 1001, "id " + registration.getId() + " collides with legacy ids");
+        // Hai đăng ký cũ được tính vào summary dựng lại: giảm 25% từ đăng ký thứ 3
+        assertEquals(750L, registration.getPrice());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "select registration_count from student_enrollment_summary where student_id = 1", Integer.class));
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.nguyenducchung;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bộ sinh tải trong JVM cho RegistrationController: mỗi worker sở hữu một nhóm sinh viên riêng,
+ * luân phiên đăng ký khóa chưa đăng ký và hủy khóa đã đăng ký để lưu lượng luôn hợp lệ.
+ * Vì lưu lượng luôn hợp lệ, lỗi = mọi phản hồi không phải 2xx hoặc lỗi I/O; trong đó HTTP 4xx được đếm thêm
+ * riêng là "rejected" để biết lỗi đến từ quy tắc nghiệp vụ hay từ server.
+ */
+public class LoadDriver {
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final List<String> studentEmails;
+    private final List<Long> courseIds;
+
+    public LoadDriver(String baseUrl, List<String> studentEmails, List<Long> courseIds) {
+        this.baseUrl = baseUrl;
+        this.studentEmails = studentEmails;
+        this.courseIds = courseIds;
+    }
+
+    public Report run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            List<String> owned = new ArrayList<>();
+            for (int j = i; j < studentEmails.size(); j += concurrency) {
+                owned.add(studentEmails.get(j));
+            }
+            Worker worker = new Worker(owned, measureFrom, stopAt, new Random(i));
+            workers.add(worker);
+            executor.submit(worker);
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmup.plus(duration).toSeconds() + 60, TimeUnit.SECONDS);
+
+        long[] latencies = workers.stream()
+                .flatMapToLong(worker -> Arrays.stream(worker.latencies, 0, worker.count))
+                .sorted()
+                .toArray();
+        long errors = workers.stream().mapToLong(worker -> worker.errors.sum()).sum();
+        long rejected = workers.stream().mapToLong(worker -> worker.rejected.sum()).sum();
+        return new Report(latencies, errors, rejected, duration);
+    }
+
+    private class Worker implements Runnable {
+        private final List<String> students;
+        private final Map<String, Set<Long>> registered = new HashMap<>();
+        private final long measureFrom;
+        private final long stopAt;
+        private final Random random;
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        Worker(List<String> students, long measureFrom, long stopAt, Random random) {
+            this.students = students;
+            this.measureFrom = measureFrom;
+            this.stopAt = stopAt;
+            this.random = random;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < stopAt && !students.isEmpty()) {
+                String email = students.get(random.nextInt(students.size()));
+                Set<Long> courses = registered.computeIfAbsent(email, key -> new HashSet<>());
+                Long courseId = courseIds.get(random.nextInt(courseIds.size()));
+                boolean unregister = courses.contains(courseId);
+
+                HttpRequest request = unregister
+                        ? HttpRequest.newBuilder(URI.create(baseUrl + "/api/registrations/unregister/" + courseId + "/" + email))
+                            .DELETE().build()
+                        : HttpRequest.newBuilder(URI.create(baseUrl + "/api/registrations/register?studentEmail=" + email + "&courseId=" + courseId))
+                            .POST(HttpRequest.BodyPublishers.noBody()).build();
+
+                long startedAt = System.nanoTime();
+                int status;
+                try {
+                    status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                }
+                catch (Exception e) {
+                    status = -1;
+                }
+                long latency = System.nanoTime() - startedAt;
+
+                boolean succeeded = status >= 200 && status < 300;
+                if (succeeded) {
+                    if (unregister) {
+                        courses.remove(courseId);
+                    }
+                    else {
+                        courses.add(courseId);
+                    }
+                }
+                if (startedAt < measureFrom) {
+                    continue;
+                }
+                if (!succeeded) {
+                    errors.increment();
+                }
+                if (status >= 400 && status < 500) {
+                    rejected.increment();
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = latency;
+            }
+        }
+    }
+
+    public static class Report {
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final long rejected;
+        private final Duration duration;
+
+        Report(long[] sortedLatencies, long errors, long rejected, Duration duration) {
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.rejected = rejected;
+            this.duration = duration;
+        }
+
+        public long requests() {
+            return sortedLatencies.length;
+        }
+
+        public double throughput() {
+            return requests() / (duration.toMillis() / 1000.0);
+        }
+
+        public double errorRate() {
+            return requests() == 0 ? 1.0 : (double) errors / requests();
+        }
+
+        public long rejected() {
+            return rejected;
+        }
+
+        public double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
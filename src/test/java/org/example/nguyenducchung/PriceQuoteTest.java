@@ -0,0 +1,161 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.dtos.CheckoutItem;
+import org.example.nguyenducchung.models.dtos.PriceQuote;
+import org.example.nguyenducchung.models.dtos.QuoteItem;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationRules;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "registration.pricing.bundle.min-courses=3",
+        "registration.pricing.bundle.percent=10",
+        "registration.pricing.early-bird.before-start=30d",
+        "registration.pricing.early-bird.percent=15"
+})
+@AutoConfigureMockMvc
+class PriceQuoteTest {
+    private static final long DAY = 86400000L;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Student student;
+
+    @BeforeEach
+    void setUpStudent() {
+        student = studentRepository.save(Student.builder().email("quote@example.com").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    private Course saveCourse(String name, long startsInMillis, long price) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + startsInMillis))
+                .endTime(new Date(System.currentTimeMillis() + startsInMillis + 10 * DAY))
+                .price(price)
+                .build());
+    }
+
+    private Long chargedPrice(Course course) {
+        return registrationRepository.findByStudentIdAndCourseId(student.getId(), course.getId()).orElseThrow().getPrice();
+    }
+
+    @Test
+    void quote_MatchesRegistrationChargeAndWritesNothing() {
+        registrationService.registerCourse(student.getEmail(), saveCourse("First", DAY, 1000L).getId());
+        registrationService.registerCourse(student.getEmail(), saveCourse("Second", DAY, 1000L).getId());
+        Course third = saveCourse("Third", DAY, 1000L);
+        long registrations = registrationRepository.count();
+
+        SqlStatementCounter.reset();
+        QuoteItem quoted = registrationService.quote(student.getEmail(), List.of(third.getId())).getItems().get(0);
+
+        assertTrue(SqlStatementCounter.statements().stream().allMatch(sql -> sql.toLowerCase().startsWith("select")),
+                String.join("\n", SqlStatementCounter.statements()));
+        assertEquals(registrations, registrationRepository.count());
+        assertEquals(750L, quoted.getPrice());
+        assertEquals(25, quoted.getPercentOff());
+        assertEquals("registration-count", quoted.getDiscountRule());
+
+        registrationService.registerCourse(student.getEmail(), third.getId());
+        assertEquals(quoted.getPrice(), chargedPrice(third));
+    }
+
+    @Test
+    void quote_AppliesBestRuleForEachCartLineLikeCheckout() {
+        Course early = saveCourse("Early", 40 * DAY, 1000L);
+        Course second = saveCourse("Second", DAY, 1000L);
+        Course third = saveCourse("Third", DAY, 2000L);
+        List<Long> cart = List.of(early.getId(), second.getId(), third.getId());
+
+        PriceQuote quote = registrationService.quote(student.getEmail(), cart);
+
+        // early-bird 15% > bundle 10%; bundle; đăng ký thứ 3 trong giỏ: 25% > bundle
+        assertEquals(List.of("early-bird", "bundle", "registration-count"),
+                quote.getItems().stream().map(QuoteItem::getDiscountRule).toList());
+        assertEquals(List.of(850L, 900L, 1500L), quote.getItems().stream().map(QuoteItem::getPrice).toList());
+        assertEquals(3250L, quote.getTotalPrice());
+
+        List<Long> charged = registrationService.checkout(student.getEmail(), cart).getItems().stream()
+                .map(CheckoutItem::getPrice)
+                .toList();
+        assertEquals(quote.getItems().stream().map(QuoteItem::getPrice).toList(), charged);
+    }
+
+    @Test
+    void quote_SeesRegistrationsCommittedAfterItWasCached() {
+        Course target = saveCourse("Target", DAY, 1000L);
+        assertEquals(1000L, registrationService.quote(student.getEmail(), List.of(target.getId())).getTotalPrice());
+
+        registrationService.registerCourse(student.getEmail(), saveCourse("First", DAY, 1000L).getId());
+        registrationService.registerCourse(student.getEmail(), saveCourse("Second", DAY, 1000L).getId());
+
+        assertEquals(750L, registrationService.quote(student.getEmail(), List.of(target.getId())).getTotalPrice());
+    }
+
+    @Test
+    void quoteEndpoint_ReturnsItemsAndRejectsInvalidCarts() throws Exception {
+        Course course = saveCourse("Java Basics", DAY, 1000L);
+        String body = "{\"studentEmail\":\"" + student.getEmail() + "\",\"courseIds\":[" + course.getId() + "]}";
+
+        mockMvc.perform(post("/api/registrations/quote").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPrice").value(1000))
+                .andExpect(jsonPath("$.items[0].courseName").value("Java Basics"))
+                .andExpect(jsonPath("$.items[0].percentOff").value(0));
+
+        registrationService.registerCourse(student.getEmail(), course.getId());
+        mockMvc.perform(post("/api/registrations/quote").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(RegistrationRules.ALREADY_REGISTERED));
+
+        mockMvc.perform(post("/api/registrations/quote").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentEmail\":\"" + student.getEmail() + "\",\"courseIds\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Cart is empty"));
+    }
+}
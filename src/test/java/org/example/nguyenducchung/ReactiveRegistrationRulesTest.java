@@ -0,0 +1,97 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.services.ReactiveRegistrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Chạy bộ luật chung trên bản WebFlux + R2DBC. JDBC (dùng để seed/kiểm tra) và R2DBC trỏ cùng
+ * một database H2 in-memory.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@TestPropertySource(properties = {
+        // SpringBootTest tự chọn kiểu web từ classpath, không đọc application-reactive.properties
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+class ReactiveRegistrationRulesTest extends RegistrationRulesContractTest {
+    @Autowired
+    private ReactiveRegistrationService registrationService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Override
+    protected List<Course> register(String studentEmail, Long courseId) {
+        return registrationService.registerCourse(studentEmail, courseId).block();
+    }
+
+    @Override
+    protected void unregister(String studentEmail, Long courseId) {
+        registrationService.unregisterCourse(studentEmail, courseId).block();
+    }
+
+    @Test
+    void httpRegisterAndUnregister() {
+        Course course = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+
+        List<Map<String, Object>> courses = webTestClient.post()
+                .uri("/api/registrations/register?studentEmail={email}&courseId={courseId}", student.getEmail(), course.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
+                .returnResult().getResponseBody();
+        assertEquals("Java Basics", courses.get(0).get("name"));
+
+        webTestClient.post()
+                .uri("/api/registrations/register?studentEmail={email}&courseId={courseId}", student.getEmail(), course.getId())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Student has already registered for this course");
+
+        webTestClient.delete()
+                .uri("/api/registrations/unregister/{courseId}/{email}", course.getId(), student.getEmail())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.message").isEqualTo("Unregistered successfully");
+    }
+
+    @Test
+    void waitlistEndpoints_AreNotServed() {
+        webTestClient.post()
+                .uri("/api/waitlists/{courseId}?studentEmail={email}", 1L, student.getEmail())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void blockingJpaEndpoints_AreNotServed() {
+        webTestClient.get().uri("/api/courses/available").exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/courses/search?q={q}", "java").exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/admin/caches/hibernate").exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/admin/registrations/export").exchange().expectStatus().isNotFound();
+        webTestClient.post().uri("/api/admin/enrollment-summaries/rebuild").exchange().expectStatus().isNotFound();
+        webTestClient.post().uri("/api/admin/imports/students").exchange().expectStatus().isNotFound();
+    }
+}
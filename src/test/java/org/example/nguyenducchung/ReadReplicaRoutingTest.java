@@ -0,0 +1,128 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.dtos.KeysetPage;
+import org.example.nguyenducchung.models.dtos.StudentRegistrationView;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replica là một database H2 thứ hai cùng schema (Flyway) nhưng dữ liệu khác primary: dữ liệu trả về
+ * cho biết truy vấn đã chạy ở đâu. Test tắt replica chạy cuối cùng.
+ */
+@SpringBootTest(properties = {
+        "registration.read-replicas.enabled=true",
+        "registration.read-replicas.connection-timeout=250ms",
+        "registration.read-replicas.pin-duration=5s"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingTest {
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-" + UUID.randomUUID();
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    private Long readerId;
+    private Long writerId;
+    private Long primaryCourseId;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        Flyway.configure()
+                .dataSource(REPLICA_URL + ";DB_CLOSE_DELAY=-1", "sa", "")
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+        // IFEXISTS: sau khi replica bị tắt, pool không tự tạo lại một database rỗng
+        registry.add("registration.read-replicas.urls", () -> REPLICA_URL + ";IFEXISTS=TRUE");
+    }
+
+    @BeforeAll
+    void seed() {
+        readerId = studentRepository.save(Student.builder().email("reader@example.com").build()).getId();
+        writerId = studentRepository.save(Student.builder().email("writer@example.com").build()).getId();
+        primaryCourseId = courseRepository.save(Course.builder()
+                .name("Primary course")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build()).getId();
+
+        // Replica có cùng sinh viên (cùng id) nhưng một đăng ký mà primary không có
+        replica.update("insert into student (id, email) values (?, ?), (?, ?)",
+                readerId, "reader@example.com", writerId, "writer@example.com");
+        replica.update("insert into course (id, name, start_time, end_time, price) values (?, 'Replica course', ?, ?, 500)",
+                primaryCourseId + 1000, new Date(System.currentTimeMillis() + 86400000), new Date(System.currentTimeMillis() + 86400000 * 10));
+        replica.update("insert into registration (id, student_id, course_id, price, registered_date) values (1, ?, ?, 500, ?), (2, ?, ?, 500, ?)",
+                readerId, primaryCourseId + 1000, new Date(), writerId, primaryCourseId + 1000, new Date());
+    }
+
+    @Test
+    @Order(1)
+    void testReadOnlyListing_ReadsFromReplica() {
+        KeysetPage<StudentRegistrationView> page = registrationService.listStudentRegistrations("reader@example.com", null, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("Replica course", page.getItems().get(0).getCourseName());
+    }
+
+    @Test
+    @Order(2)
+    void testRegistration_WritesToPrimaryAndPinsFollowingReadsToPrimary() {
+        registrationService.registerCourse("writer@example.com", primaryCourseId);
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from registration where student_id = ?", Integer.class, writerId));
+        assertEquals(1, replica.queryForObject(
+                "select count(*) from registration where student_id = ?", Integer.class, writerId));
+
+        // Sinh viên vừa ghi: đọc từ primary nên thấy ngay đăng ký mới
+        KeysetPage<StudentRegistrationView> page = registrationService.listStudentRegistrations("writer@example.com", null, 10);
+        assertEquals(1, page.getItems().size());
+        assertEquals("Primary course", page.getItems().get(0).getCourseName());
+
+        // Sinh viên khác vẫn đọc từ replica
+        assertEquals("Replica course",
+                registrationService.listStudentRegistrations("reader@example.com", null, 10).getItems().get(0).getCourseName());
+    }
+
+    @Test
+    @Order(3)
+    void testReplicaDown_FallsBackToPrimary() throws InterruptedException {
+        replica.execute("SHUTDOWN");
+        // Hikari chỉ kiểm tra lại connection đã nhàn rỗi quá 500ms
+        Thread.sleep(600);
+
+        KeysetPage<StudentRegistrationView> page = registrationService.listStudentRegistrations("reader@example.com", null, 10);
+
+        assertTrue(page.getItems().isEmpty());
+        assertTrue(registrationService.listStudentRegistrations("reader@example.com", null, 10).getItems().isEmpty());
+    }
+}
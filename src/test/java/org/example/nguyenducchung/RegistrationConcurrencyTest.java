@@ -0,0 +1,140 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RegistrationConcurrencyTest {
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAll();
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRegistrationsForSamePair_InsertOnlyOneRow() throws Exception {
+        Student student = studentRepository.save(Student.builder()
+                .email("student@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .build());
+
+        Course course = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+
+        int threads = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    registrationService.registerCourse(student.getEmail(), course.getId());
+                    succeeded.incrementAndGet();
+                }
+                catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, succeeded.get());
+        assertEquals(threads - 1, rejected.get());
+        assertEquals(1, registrationRepository.findByStudentId(student.getId()).size());
+    }
+
+    @Test
+    void concurrentFirstRegistrationsForDifferentCourses_AllSucceed() throws Exception {
+        int threads = 20;
+        for (int round = 0; round < 5; round++) {
+            // Sinh viên mới, chưa có summary: mọi luồng cùng phải tạo summary
+            Student student = studentRepository.save(Student.builder()
+                    .email("student" + round + "@example.com")
+                    .build());
+            List<Course> courses = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                courses.add(courseRepository.save(Course.builder()
+                        .name("Course " + round + "-" + i)
+                        .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                        .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                        .price(1000L)
+                        .build()));
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Course course : courses) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    registrationService.registerCourse(student.getEmail(), course.getId());
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            assertEquals(threads, registrationRepository.findByStudentId(student.getId()).size());
+            assertEquals(threads, summaryRepository.findById(student.getId()).orElseThrow().getRegistrationCount());
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
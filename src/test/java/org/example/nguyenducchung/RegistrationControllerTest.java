@@ -1,11 +1,21 @@
 package org.example.nguyenducchung;
 
+import jakarta.servlet.ServletException;
 import org.example.nguyenducchung.controllers.RegistrationController;
+import org.example.nguyenducchung.models.dtos.CheckoutItem;
+import org.example.nguyenducchung.models.dtos.CheckoutResponse;
+import org.example.nguyenducchung.models.dtos.KeysetPage;
+import org.example.nguyenducchung.models.dtos.StudentRegistrationView;
 import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.services.IdempotencyService;
 import org.example.nguyenducchung.services.RegistrationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -13,13 +23,17 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RegistrationController.class)
+@Import(IdempotencyService.class)
 class RegistrationControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -218,5 +232,167 @@ class RegistrationControllerTest {
                 .andExpect(jsonPath("$.error").value(errorMessage));
     }
 
-}
+    //checkout
+    @Test
+    void testCheckout_Success() throws Exception {
+        String studentEmail = "student@example.com";
+
+        Course course = Course.builder()
+                .id(2L)
+                .name("Spring Boot")
+                .price(2000L)
+                .build();
+
+        CheckoutResponse response = CheckoutResponse.builder()
+                .items(List.of(CheckoutItem.builder().courseId(2L).courseName("Spring Boot").originalPrice(2000L).price(1500L).build()))
+                .totalPrice(1500L)
+                .registeredCourses(List.of(course))
+                .build();
+
+        when(registrationService.checkout(studentEmail, List.of(2L))).thenReturn(response);
+
+        mockMvc.perform(post("/api/registrations/checkout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentEmail\":\"student@example.com\",\"courseIds\":[2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].price").value(1500))
+                .andExpect(jsonPath("$.totalPrice").value(1500))
+                .andExpect(jsonPath("$.registeredCourses[0].name").value("Spring Boot"));
+    }
+
+    @Test
+    void testCheckout_Fail_CourseAlreadyStarted() throws Exception {
+        String studentEmail = "student@example.com";
+
+        when(registrationService.checkout(studentEmail, List.of(1L, 2L)))
+                .thenThrow(new RuntimeException("Cannot register for a course that has already started"));
+
+        mockMvc.perform(post("/api/registrations/checkout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentEmail\":\"student@example.com\",\"courseIds\":[1,2]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Cannot register for a course that has already started"));
+    }
+
+    @Test
+    void testRegisterCourse_RetryWithSameIdempotencyKey_ReplaysOriginalResponse() throws Exception {
+        String studentEmail = "student@example.com";
+        Course course = Course.builder()
+                .id(1L)
+                .name("Java Basics")
+                .startTime(new Date())
+                .endTime(new Date())
+                .price(1000L)
+                .build();
+
+        when(registrationService.registerCourse(studentEmail, 1L)).thenReturn(List.of(course));
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockMvc.perform(post("/api/registrations/register")
+                            .header(IdempotencyService.KEY_HEADER, "retry-key")
+                            .param("studentEmail", studentEmail)
+                            .param("courseId", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].name").value("Java Basics"));
+        }
+        mockMvc.perform(post("/api/registrations/register")
+                        .header(IdempotencyService.KEY_HEADER, "retry-key")
+                        .param("studentEmail", studentEmail)
+                        .param("courseId", "1"))
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+
+        verify(registrationService, times(1)).registerCourse(studentEmail, 1L);
+    }
 
+    @Test
+    void testRegisterCourse_InfrastructureFailure_IsServerErrorAndNotStored() throws Exception {
+        when(registrationService.registerCourse("student@example.com", 1L))
+                .thenThrow(new CannotAcquireLockException("lock timeout"))
+                .thenReturn(List.of());
+
+        assertThrows(ServletException.class, () -> mockMvc.perform(post("/api/registrations/register")
+                .header(IdempotencyService.KEY_HEADER, "lock-key")
+                .param("studentEmail", "student@example.com")
+                .param("courseId", "1")));
+
+        mockMvc.perform(post("/api/registrations/register")
+                        .header(IdempotencyService.KEY_HEADER, "lock-key")
+                        .param("studentEmail", "student@example.com")
+                        .param("courseId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+        verify(registrationService, times(2)).registerCourse("student@example.com", 1L);
+    }
+
+    @Test
+    void testRegisterCourse_ConstraintViolation_IsServerError() {
+        when(registrationService.registerCourse("student@example.com", 1L))
+                .thenThrow(new DataIntegrityViolationException("fk_registration_course"));
+
+        assertThrows(ServletException.class, () -> mockMvc.perform(post("/api/registrations/register")
+                .param("studentEmail", "student@example.com")
+                .param("courseId", "1")));
+    }
+
+    @Test
+    void testUnregisterCourse_IdempotencyKeyReusedForOtherRequest() throws Exception {
+        mockMvc.perform(delete("/api/registrations/unregister/1/student@example.com")
+                        .header(IdempotencyService.KEY_HEADER, "reused-key"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/registrations/unregister/2/student@example.com")
+                        .header(IdempotencyService.KEY_HEADER, "reused-key"))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(registrationService, times(1)).unregisterCourse(anyString(), anyLong());
+    }
+
+    @Test
+    void testRegisterCourse_WithoutCourses_ReturnsOnlyNewRegistration() throws Exception {
+        StudentRegistrationView view = StudentRegistrationView.builder()
+                .registrationId(10L)
+                .courseId(1L)
+                .courseName("Java Basics")
+                .price(750L)
+                .build();
+        when(registrationService.registerCourseView("student@example.com", 1L)).thenReturn(view);
+
+        mockMvc.perform(post("/api/registrations/register")
+                        .param("studentEmail", "student@example.com")
+                        .param("courseId", "1")
+                        .param("includeCourses", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registrationId").value(10))
+                .andExpect(jsonPath("$.price").value(750));
+
+        verify(registrationService, never()).registerCourse(anyString(), anyLong());
+    }
+
+    @Test
+    void testListStudentRegistrations_ReturnsKeysetPage() throws Exception {
+        StudentRegistrationView view = StudentRegistrationView.builder()
+                .registrationId(51L)
+                .courseId(1L)
+                .courseName("Java Basics")
+                .build();
+        when(registrationService.listStudentRegistrations("student@example.com", 50L, 1))
+                .thenReturn(new KeysetPage<>(List.of(view), 51L));
+
+        mockMvc.perform(get("/api/registrations/students/student@example.com")
+                        .param("afterId", "50")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].courseName").value("Java Basics"))
+                .andExpect(jsonPath("$.nextAfterId").value(51));
+    }
+
+    @Test
+    void testListCourseRoster_CourseNotFound() throws Exception {
+        when(registrationService.listCourseRoster(99L, null, 20)).thenThrow(new RuntimeException("Course not found"));
+
+        mockMvc.perform(get("/api/registrations/courses/99/roster"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Course not found"));
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.example.nguyenducchung;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.services.RegistrationExportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Xuất 1 triệu đăng ký của một khóa học. Profile loadtest chạy test với heap cố định nhỏ (-Xmx256m):
+ * nạp cả danh sách thành entity sẽ không vừa, còn export qua cursor phải giữ heap gần như không đổi.
+ * Dữ liệu nằm trong H2 dạng file để chính database không chiếm heap.
+ * <p>
+ * Chạy: {@code mvn -Ploadtest test -Dtest=RegistrationExportLoadTest}
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/export-loadtest-${random.uuid};LAZY_QUERY_EXECUTION=1;CACHE_SIZE=16384",
+        "registration.export.fetch-size=1000"
+})
+class RegistrationExportLoadTest {
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @Autowired
+    private RegistrationExportService registrationExportService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testExport_MillionRowsWithFlatHeap() throws Exception {
+        Course course = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+        jdbcTemplate.update("insert into student (email, first_name, last_name) "
+                + "select concat('student', x, '@example.com'), 'First', 'Last' from system_range(1, ?)", ROWS);
+        jdbcTemplate.update("insert into registration (id, student_id, course_id, price, registered_date) "
+                + "select id, id, ?, 1000, current_timestamp from student", course.getId());
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(memory);
+
+        long start = System.nanoTime();
+        long rows = registrationExportService.export(course.getId(), null, null, RegistrationExportService.Format.CSV, out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info(String.format("Exported %d rows (%d MB) in %.1fs, %.0f rows/s, heap baseline %d MB, peak after GC %d MB, max heap %d MB",
+                rows, out.bytes / (1024 * 1024), seconds, rows / seconds, baseline / (1024 * 1024),
+                out.peakUsed / (1024 * 1024), memory.getHeapMemoryUsage().getMax() / (1024 * 1024)));
+        assertEquals(ROWS, rows);
+        assertTrue(out.peakUsed - baseline < MAX_HEAP_GROWTH,
+                "Heap grew by " + (out.peakUsed - baseline) / (1024 * 1024) + " MB during export");
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Bỏ dữ liệu đi, chỉ đếm byte; cứ mỗi 8 MB ghi ra thì đo heap còn sống sau GC.
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+        private static final long SAMPLE_EVERY = 8L * 1024 * 1024;
+
+        private final MemoryMXBean memory;
+        private long bytes;
+        private long nextSample = SAMPLE_EVERY;
+        private long peakUsed;
+
+        HeapSamplingOutputStream(MemoryMXBean memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public void write(int b) {
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count(len);
+        }
+
+        private void count(int len) {
+            bytes += len;
+            if (bytes >= nextSample) {
+                nextSample += SAMPLE_EVERY;
+                peakUsed = Math.max(peakUsed, usedHeapAfterGc(memory));
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.nguyenducchung;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationExportService;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RegistrationExportTest {
+    @Autowired
+    private RegistrationExportService registrationExportService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    private Course seedCourse() {
+        Course course = courseRepository.save(Course.builder()
+                .name("Java, \"Basics\"")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+        for (int i = 0; i < 3; i++) {
+            studentRepository.save(Student.builder().email("student" + i + "@example.com").firstName("Student" + i).lastName("Doe").build());
+            registrationService.registerCourse("student" + i + "@example.com", course.getId());
+        }
+        return course;
+    }
+
+    @Test
+    void testExport_CsvEscapesFieldsAndKeepsIdOrder() throws Exception {
+        Course course = seedCourse();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = registrationExportService.export(course.getId(), null, null, RegistrationExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, rows);
+        assertEquals(4, lines.length);
+        assertEquals("registrationId,courseId,courseName,studentId,email,firstName,lastName,price,registeredDate", lines[0]);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(lines[i + 1].contains(",\"Java, \"\"Basics\"\"\","), lines[i + 1]);
+            assertTrue(lines[i + 1].contains(",student" + i + "@example.com,Student" + i + ",Doe,1000,"), lines[i + 1]);
+        }
+    }
+
+    @Test
+    void testExport_NdjsonByDateRange() throws Exception {
+        seedCourse();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        registrationExportService.export(null, LocalDate.now(), LocalDate.now(), RegistrationExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("student0@example.com", first.get("email").asText());
+        assertEquals("Java, \"Basics\"", first.get("courseName").asText());
+        assertEquals(1000L, first.get("price").asLong());
+
+        ByteArrayOutputStream yesterday = new ByteArrayOutputStream();
+        long rows = registrationExportService.export(null, LocalDate.now().minusDays(1), LocalDate.now().minusDays(1),
+                RegistrationExportService.Format.NDJSON, yesterday);
+        assertEquals(0, rows);
+    }
+
+    @Test
+    void testExportEndpoint_StreamsCsv() throws Exception {
+        Course course = seedCourse();
+
+        MvcResult result = mockMvc.perform(get("/api/admin/registrations/export").param("courseId", course.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(4, body.split("\n").length);
+    }
+
+    @Test
+    void testExportEndpoint_RequiresFilter() throws Exception {
+        mockMvc.perform(get("/api/admin/registrations/export"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Export requires a courseId or a date range"));
+        mockMvc.perform(get("/api/admin/registrations/export").param("courseId", "1").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unsupported export format: xml"));
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.nguyenducchung;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.nguyenducchung.models.dtos.CourseRosterEntry;
+import org.example.nguyenducchung.models.dtos.KeysetPage;
+import org.example.nguyenducchung.models.dtos.StudentRegistrationView;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RegistrationListingTest {
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private Course saveCourse(String name, long price) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(price)
+                .build());
+    }
+
+    @Test
+    void testListStudentRegistrations_WalksAllPagesWithOneQueryEach() {
+        studentRepository.save(Student.builder().email("student@example.com").build());
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Long courseId = saveCourse("Course " + i, 1000L).getId();
+            courseIds.add(courseId);
+            registrationService.registerCourse("student@example.com", courseId);
+        }
+
+        List<Long> listed = new ArrayList<>();
+        Long afterId = null;
+        int pages = 0;
+        do {
+            SqlStatementCounter.reset();
+            KeysetPage<StudentRegistrationView> page = registrationService.listStudentRegistrations("student@example.com", afterId, 2);
+            // Student lấy từ cache; chỉ một câu SELECT trên registration, không nạp entity liên kết
+            assertEquals(1, SqlStatementCounter.count("from registration\\b"), SqlStatementCounter.statements().toString());
+            assertEquals(0, SqlStatementCounter.count("from student\\b"), SqlStatementCounter.statements().toString());
+            page.getItems().forEach(item -> listed.add(item.getCourseId()));
+            afterId = page.getNextAfterId();
+            pages++;
+        } while (afterId != null);
+
+        assertEquals(courseIds, listed);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testListCourseRoster_ReturnsProjectedStudents() {
+        Course course = saveCourse("Java Basics", 1000L);
+        for (int i = 0; i < 3; i++) {
+            studentRepository.save(Student.builder().email("student" + i + "@example.com").firstName("Student" + i).build());
+            registrationService.registerCourse("student" + i + "@example.com", course.getId());
+        }
+
+        KeysetPage<CourseRosterEntry> first = registrationService.listCourseRoster(course.getId(), null, 2);
+        assertEquals(List.of("student0@example.com", "student1@example.com"),
+                first.getItems().stream().map(CourseRosterEntry::getEmail).toList());
+        assertNotNull(first.getNextAfterId());
+
+        KeysetPage<CourseRosterEntry> second = registrationService.listCourseRoster(course.getId(), first.getNextAfterId(), 2);
+        assertEquals(1, second.getItems().size());
+        assertEquals("Student2", second.getItems().get(0).getFirstName());
+        assertEquals(1000L, second.getItems().get(0).getPrice());
+        assertNull(second.getNextAfterId());
+    }
+
+    @Test
+    void testRegisterCourseView_ReturnsOnlyNewRegistration() {
+        studentRepository.save(Student.builder().email("student@example.com").build());
+        for (int i = 0; i < 2; i++) {
+            registrationService.registerCourse("student@example.com", saveCourse("Course " + i, 1000L).getId());
+        }
+        Course third = saveCourse("Spring Boot", 2000L);
+
+        StudentRegistrationView view = registrationService.registerCourseView("student@example.com", third.getId());
+
+        assertNotNull(view.getRegistrationId());
+        assertEquals(third.getId(), view.getCourseId());
+        assertEquals("Spring Boot", view.getCourseName());
+        assertEquals(1500L, view.getPrice());
+    }
+
+    @Test
+    void testListCourseRoster_UnknownCourse() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> registrationService.listCourseRoster(-1L, null, 20));
+        assertEquals("Course not found", exception.getMessage());
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.nguyenducchung;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tải giả lập mùa đăng ký: chạy toàn bộ ứng dụng trên H2 (MODE=MSSQLServer), seed sinh viên/khóa học
+ * rồi bắn register/unregister đồng thời qua HTTP. Ngưỡng cấu hình trong application-loadtest.properties.
+ * <p>
+ * Chạy: {@code mvn -Ploadtest test} (chạy cả {@link VirtualThreadRegistrationLoadTest} để so sánh).
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class RegistrationLoadTest {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loadtest.students}")
+    private int studentCount;
+
+    @Value("${loadtest.courses}")
+    private int courseCount;
+
+    @Value("${loadtest.concurrency}")
+    private int concurrency;
+
+    @Value("${loadtest.warmup-seconds}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.duration-seconds}")
+    private int durationSeconds;
+
+    @Value("${loadtest.min-throughput}")
+    private double minThroughput;
+
+    @Value("${loadtest.max-p99-ms}")
+    private double maxP99Millis;
+
+    @Value("${loadtest.max-error-rate}")
+    private double maxErrorRate;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Test
+    void registrationRush() throws Exception {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            students.add(Student.builder().email("load" + i + "@example.com").firstName("Load").lastName("Student" + i).build());
+        }
+        List<String> emails = studentRepository.saveAll(students).stream().map(Student::getEmail).toList();
+
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < courseCount; i++) {
+            courses.add(Course.builder()
+                    .name("Course " + i)
+                    .startTime(new Date(System.currentTimeMillis() + 86400000L * 30))
+                    .endTime(new Date(System.currentTimeMillis() + 86400000L * 60))
+                    .price(1000L + i)
+                    .build());
+        }
+        List<Long> courseIds = courseRepository.saveAll(courses).stream().map(Course::getId).toList();
+
+        LoadDriver driver = new LoadDriver("http://localhost:" + port, emails, courseIds);
+        Timer poolWait = meterRegistry.get("hikaricp.connections.acquire").timer();
+        long acquisitionsBefore = poolWait.count();
+        double waitMillisBefore = poolWait.totalTime(TimeUnit.MILLISECONDS);
+        LoadDriver.Report report = driver.run(concurrency, Duration.ofSeconds(warmupSeconds), Duration.ofSeconds(durationSeconds));
+        long acquisitions = poolWait.count() - acquisitionsBefore;
+        double poolWaitAvgMillis = acquisitions == 0 ? 0 : (poolWait.totalTime(TimeUnit.MILLISECONDS) - waitMillisBefore) / acquisitions;
+
+        log.info(String.format("Load test [%s threads]: concurrency=%d requests=%d throughput=%.1f req/s p50=%.1fms p99=%.1fms p999=%.1fms "
+                        + "errorRate=%.4f rejected=%d poolWaitAvg=%.2fms poolWaitMax=%.2fms",
+                virtualThreads ? "virtual" : "platform", concurrency, report.requests(), report.throughput(),
+                report.percentileMillis(50), report.percentileMillis(99), report.percentileMillis(99.9),
+                report.errorRate(), report.rejected(), poolWaitAvgMillis, poolWait.max(TimeUnit.MILLISECONDS)));
+
+        assertTrue(report.throughput() >= minThroughput,
+                "Throughput " + report.throughput() + " req/s below threshold " + minThroughput);
+        assertTrue(report.percentileMillis(99) <= maxP99Millis,
+                "p99 " + report.percentileMillis(99) + " ms above threshold " + maxP99Millis);
+        assertTrue(report.errorRate() <= maxErrorRate,
+                "Error rate " + report.errorRate() + " above threshold " + maxErrorRate);
+    }
+}
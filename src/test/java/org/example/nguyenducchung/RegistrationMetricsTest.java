@@ -0,0 +1,121 @@
+package org.example.nguyenducchung;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+class RegistrationMetricsTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testRegisterCourse_PublishesControllerServiceRepositoryAndPoolMeters() {
+        studentRepository.save(Student.builder().email("metrics@example.com").build());
+        Course course = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+
+        assertEquals(HttpStatus.OK, register("metrics@example.com", course.getId()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, register("metrics@example.com", course.getId()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, register("unknown@example.com", course.getId()).getStatusCode());
+
+        assertEquals(1, serviceCount("registerCourse", "success"));
+        assertEquals(1, serviceCount("registerCourse", "duplicate"));
+        assertEquals(1, serviceCount("registerCourse", "student-not-found"));
+
+        assertNotNull(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "RegistrationRepository").tag("method", "saveAndFlush").timer());
+        assertNotNull(meterRegistry.get("hikaricp.connections.active").gauge());
+
+        String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+        assertTrue(scrape.contains("registration_service_seconds_bucket"), "Missing service histogram");
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket"), "Missing HTTP histogram");
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket"), "Missing repository histogram");
+        assertTrue(scrape.contains("hikaricp_connections_active"), "Missing Hikari pool gauge");
+
+        // Observation HTTP đóng sau khi response đã gửi, nên kiểm tra sau lần scrape
+        assertEquals(3, meterRegistry.get("http.server.requests").tag("uri", "/api/registrations/register").timers().stream()
+                .mapToLong(Timer::count).sum());
+    }
+
+    @Test
+    void testRejections_AreTaggedWithCapacityAndWaitlistOutcomes() {
+        studentRepository.save(Student.builder().email("first@example.com").build());
+        studentRepository.save(Student.builder().email("second@example.com").build());
+        Course course = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .capacity(1)
+                .build());
+        Course open = courseRepository.save(Course.builder()
+                .name("Spring Boot")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+
+        assertEquals(HttpStatus.OK, register("first@example.com", course.getId()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, register("second@example.com", course.getId()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.postForEntity("/api/waitlists/{courseId}?studentEmail={email}",
+                null, String.class, open.getId(), "second@example.com").getStatusCode());
+
+        assertEquals(1, serviceCount("registerCourse", "course-full"));
+        assertEquals(1, serviceCount("join", "seats-available"));
+    }
+
+    private ResponseEntity<String> register(String studentEmail, Long courseId) {
+        return restTemplate.postForEntity("/api/registrations/register?studentEmail={email}&courseId={courseId}",
+                null, String.class, studentEmail, courseId);
+    }
+
+    private long serviceCount(String method, String outcome) {
+        return meterRegistry.get("registration.service").tag("method", method).tag("outcome", outcome).timer().count();
+    }
+}
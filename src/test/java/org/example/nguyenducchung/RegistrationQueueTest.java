@@ -0,0 +1,105 @@
+package org.example.nguyenducchung;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.nguyenducchung.models.dtos.RegistrationTicket;
+import org.example.nguyenducchung.services.RegistrationQueue;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RegistrationQueueTest {
+    @Mock
+    private RegistrationService registrationService;
+
+    @Test
+    void testSubmit_RejectsWhenFull_AndDrainsOnStop() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(registrationService.registerBatch(anyList())).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await();
+            List<RegistrationTicket> batch = invocation.getArgument(0);
+            return batch.stream()
+                    .map(ticket -> ticket.toBuilder().status(RegistrationTicket.Status.REGISTERED).build())
+                    .toList();
+        });
+
+        RegistrationQueue queue = new RegistrationQueue(registrationService, new SimpleMeterRegistry(),
+                2, 10, Duration.ofMinutes(1), Duration.ofSeconds(10));
+        queue.start();
+
+        // Ticket đầu tiên được thread ghi lấy ra và giữ lại, hai ticket sau lấp đầy hàng
+        List<RegistrationTicket> accepted = new ArrayList<>();
+        accepted.add(queue.submit("student0@example.com", 1L));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        accepted.add(queue.submit("student1@example.com", 1L));
+        accepted.add(queue.submit("student2@example.com", 1L));
+        assertNull(queue.submit("student3@example.com", 1L));
+
+        release.countDown();
+        queue.stop();
+
+        assertFalse(queue.isRunning());
+        assertNull(queue.submit("student4@example.com", 1L));
+        for (RegistrationTicket ticket : accepted) {
+            assertEquals(RegistrationTicket.Status.REGISTERED, queue.find(ticket.getTicketId()).getStatus());
+        }
+    }
+
+    @Test
+    void testBatchFailure_FallsBackToSingleRegistrations() throws Exception {
+        when(registrationService.registerBatch(anyList())).thenThrow(new RuntimeException("Student has already registered for this course"));
+        when(registrationService.registerCourse("student@example.com", 1L)).thenReturn(List.of());
+        when(registrationService.registerCourse("student@example.com", 2L))
+                .thenThrow(new RuntimeException("Student has already registered for this course"));
+
+        RegistrationQueue queue = new RegistrationQueue(registrationService, new SimpleMeterRegistry(),
+                10, 10, Duration.ofMinutes(1), Duration.ofSeconds(10));
+        queue.start();
+        RegistrationTicket first = queue.submit("student@example.com", 1L);
+        RegistrationTicket second = queue.submit("student@example.com", 2L);
+        queue.stop();
+
+        assertEquals(RegistrationTicket.Status.REGISTERED, queue.find(first.getTicketId()).getStatus());
+        RegistrationTicket rejected = queue.find(second.getTicketId());
+        assertEquals(RegistrationTicket.Status.REJECTED, rejected.getStatus());
+        assertEquals("Student has already registered for this course", rejected.getError());
+    }
+
+    @Test
+    void testBatchInfrastructureFailure_FailsTicketsWithoutReplay() {
+        when(registrationService.registerBatch(anyList())).thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        RegistrationQueue queue = new RegistrationQueue(registrationService, new SimpleMeterRegistry(),
+                10, 10, Duration.ofMinutes(1), Duration.ofSeconds(10));
+        queue.start();
+        RegistrationTicket first = queue.submit("student@example.com", 1L);
+        RegistrationTicket second = queue.submit("student@example.com", 2L);
+        queue.stop();
+
+        for (RegistrationTicket ticket : List.of(first, second)) {
+            RegistrationTicket failed = queue.find(ticket.getTicketId());
+            assertEquals(RegistrationTicket.Status.FAILED, failed.getStatus());
+            assertEquals(RegistrationQueue.BATCH_FAILED, failed.getError());
+        }
+        verify(registrationService, never()).registerCourse(anyString(), anyLong());
+    }
+}
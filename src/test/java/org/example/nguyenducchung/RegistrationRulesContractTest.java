@@ -0,0 +1,211 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Registration;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationRules;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bộ kiểm thử luật đăng ký chạy trên DB thật, dùng chung cho mọi cài đặt (JPA và reactive).
+ * Lớp con chỉ cần nối {@link #register} và {@link #unregister} tới cài đặt của mình.
+ */
+abstract class RegistrationRulesContractTest {
+    @Autowired
+    protected StudentRepository studentRepository;
+
+    @Autowired
+    protected CourseRepository courseRepository;
+
+    @Autowired
+    protected RegistrationRepository registrationRepository;
+
+    @Autowired
+    protected StudentEnrollmentSummaryRepository summaryRepository;
+
+    protected Student student;
+
+    protected abstract List<Course> register(String studentEmail, Long courseId);
+
+    protected abstract void unregister(String studentEmail, Long courseId);
+
+    @BeforeEach
+    void setUpStudent() {
+        student = studentRepository.save(Student.builder()
+                .email("student@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void register_ReturnsAllRegisteredCourses() {
+        Course third = futureCourse("Microservices", 3000L);
+        Course first = futureCourse("Java Basics", 1000L);
+        Course second = futureCourse("Spring Boot", 2000L);
+
+        // Theo thứ tự đăng ký, không theo id khóa học
+        register(student.getEmail(), second.getId());
+        register(student.getEmail(), first.getId());
+        List<Course> courses = register(student.getEmail(), third.getId());
+
+        assertEquals(List.of(second.getId(), first.getId(), third.getId()),
+                courses.stream().map(Course::getId).toList());
+        assertEquals(1000L, priceOf(first));
+        assertEquals(2000L, priceOf(second));
+    }
+
+    @Test
+    void register_ThirdCourseIsDiscounted() {
+        register(student.getEmail(), futureCourse("Java Basics", 1000L).getId());
+        register(student.getEmail(), futureCourse("Spring Boot", 1000L).getId());
+        Course third = futureCourse("Microservices", 2000L);
+
+        register(student.getEmail(), third.getId());
+
+        assertEquals(1500L, priceOf(third));
+    }
+
+    @Test
+    void register_UnknownStudent() {
+        Course course = futureCourse("Java Basics", 1000L);
+
+        assertRejected(RegistrationRules.STUDENT_NOT_FOUND, () -> register("unknown@example.com", course.getId()));
+    }
+
+    @Test
+    void register_UnknownCourse() {
+        assertRejected(RegistrationRules.COURSE_NOT_FOUND, () -> register(student.getEmail(), -1L));
+    }
+
+    @Test
+    void register_StartedCourse() {
+        Course course = startedCourse();
+
+        assertRejected(RegistrationRules.REGISTER_STARTED, () -> register(student.getEmail(), course.getId()));
+        assertEquals(0, registrationRepository.count());
+    }
+
+    @Test
+    void register_Duplicate() {
+        Course course = futureCourse("Java Basics", 1000L);
+        register(student.getEmail(), course.getId());
+
+        assertRejected(RegistrationRules.ALREADY_REGISTERED, () -> register(student.getEmail(), course.getId()));
+        assertEquals(1, registrationRepository.count());
+    }
+
+    @Test
+    void register_FullCourse() {
+        Course course = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .capacity(1)
+                .build());
+        Student other = studentRepository.save(Student.builder().email("other@example.com").build());
+        register(other.getEmail(), course.getId());
+
+        assertRejected(RegistrationRules.COURSE_FULL, () -> register(student.getEmail(), course.getId()));
+        assertEquals(1, registrationRepository.count());
+    }
+
+    @Test
+    void register_ExistingRegistrationsWithoutSummaryAreCounted() {
+        Course first = futureCourse("Java Basics", 1000L);
+        Course second = futureCourse("Spring Boot", 1000L);
+        saveRegistration(first);
+        saveRegistration(second);
+        Course third = futureCourse("Microservices", 2000L);
+
+        assertRejected(RegistrationRules.ALREADY_REGISTERED, () -> register(student.getEmail(), first.getId()));
+        register(student.getEmail(), third.getId());
+
+        assertEquals(1500L, priceOf(third));
+    }
+
+    @Test
+    void unregister_RemovesRegistrationAndAllowsRegisteringAgain() {
+        Course course = futureCourse("Java Basics", 1000L);
+        register(student.getEmail(), course.getId());
+
+        unregister(student.getEmail(), course.getId());
+
+        assertTrue(registrationRepository.findByStudentIdAndCourseId(student.getId(), course.getId()).isEmpty());
+        register(student.getEmail(), course.getId());
+        assertEquals(1, registrationRepository.count());
+    }
+
+    @Test
+    void unregister_NotRegistered() {
+        Course course = futureCourse("Java Basics", 1000L);
+
+        assertRejected(RegistrationRules.REGISTRATION_NOT_FOUND, () -> unregister(student.getEmail(), course.getId()));
+    }
+
+    @Test
+    void unregister_StartedCourse() {
+        Course course = startedCourse();
+        saveRegistration(course);
+
+        assertRejected(RegistrationRules.UNREGISTER_STARTED, () -> unregister(student.getEmail(), course.getId()));
+        assertEquals(1, registrationRepository.count());
+    }
+
+    private Course futureCourse(String name, Long price) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(price)
+                .build());
+    }
+
+    private Course startedCourse() {
+        return courseRepository.save(Course.builder()
+                .name("Started Course")
+                .startTime(new Date(System.currentTimeMillis() - 86400000)) // Hôm qua
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+    }
+
+    private void saveRegistration(Course course) {
+        registrationRepository.save(Registration.builder()
+                .student(student)
+                .course(course)
+                .price(course.getPrice())
+                .registeredDate(new Date())
+                .build());
+    }
+
+    private Long priceOf(Course course) {
+        return registrationRepository.findByStudentIdAndCourseId(student.getId(), course.getId()).orElseThrow().getPrice();
+    }
+
+    private static void assertRejected(String message, Runnable action) {
+        RuntimeException exception = assertThrows(RuntimeException.class, action::run);
+        assertEquals(message, exception.getMessage());
+    }
+}
@@ -1,19 +1,29 @@
 package org.example.nguyenducchung;
 
+import org.example.nguyenducchung.configs.ReadYourWritesTracker;
+import org.example.nguyenducchung.models.dtos.CheckoutResponse;
 import org.example.nguyenducchung.models.entities.Course;
 import org.example.nguyenducchung.models.entities.Registration;
 import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.models.entities.StudentEnrollmentSummary;
 import org.example.nguyenducchung.repositories.CourseRepository;
 import org.example.nguyenducchung.repositories.RegistrationRepository;
 import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.DiscountRules;
+import org.example.nguyenducchung.services.EnrollmentSummaryService;
+import org.example.nguyenducchung.services.PricingEngine;
 import org.example.nguyenducchung.services.RegistrationService;
+import org.example.nguyenducchung.services.SeatReservationService;
+import org.example.nguyenducchung.services.WaitlistService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.*;
 
@@ -33,9 +43,32 @@ class RegistrationServiceTest {
     @Mock
     private RegistrationRepository registrationRepository;
 
+    @Mock
+    private EnrollmentSummaryService enrollmentSummaryService;
+
+    @Mock
+    private SeatReservationService seatReservationService;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine(List.of(DiscountRules.registrationCount(2, 25)));
+
     @InjectMocks
     private RegistrationService registrationService;
 
+    private StudentEnrollmentSummary summaryOf(Long studentId, Long... courseIds) {
+        return StudentEnrollmentSummary.builder()
+                .studentId(studentId)
+                .registrationCount(courseIds.length)
+                .courseIds(new HashSet<>(Arrays.asList(courseIds)))
+                .build();
+    }
+
     @Test
     void testRegisterCourse_Success_WithDiscount() {
         Student student = Student.builder()
@@ -61,22 +94,6 @@ class RegistrationServiceTest {
                 .price(2000L)
                 .build();
 
-        Registration existingRegistration1 = Registration.builder()
-                .id(1L)
-                .student(student)
-                .course(course1)
-                .price(course1.getPrice())
-                .registeredDate(new Date())
-                .build();
-
-        Registration existingRegistration2 = Registration.builder()
-                .id(2L)
-                .student(student)
-                .course(course2)
-                .price(course2.getPrice())
-                .registeredDate(new Date())
-                .build();
-
         Course newCourse = Course.builder()
                 .id(3L)
                 .name("Microservices")
@@ -88,27 +105,21 @@ class RegistrationServiceTest {
         when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
         when(courseRepository.findById(newCourse.getId())).thenReturn(Optional.of(newCourse));
 
-        List<Registration> existingRegistrations = new ArrayList<>(Arrays.asList(existingRegistration1, existingRegistration2));
-
-        when(registrationRepository.findByStudentId(student.getId()))
-                .thenAnswer(invocation -> new ArrayList<>(existingRegistrations)); // Luôn trả về danh sách hiện tại
+        StudentEnrollmentSummary summary = summaryOf(student.getId(), course1.getId(), course2.getId());
+        when(enrollmentSummaryService.lockSummary(student.getId())).thenReturn(summary);
+        when(registrationRepository.findRegisteredCourses(student.getId())).thenReturn(List.of(course2, course1, newCourse));
 
         Long expectedPrice = newCourse.getPrice() * 75 / 100;
 
-        when(registrationRepository.save(any(Registration.class)))
-                .thenAnswer(invocation -> {
-                    Registration newReg = invocation.getArgument(0);
-                    existingRegistrations.add(newReg); // Cập nhật danh sách sau khi đăng ký
-                    return newReg;
-                });
-
         // When
         List<Course> registeredCourses = registrationService.registerCourse(student.getEmail(), newCourse.getId());
 
         // Then
         assertNotNull(registeredCourses);
-        assertEquals(3, registeredCourses.size());
-        verify(registrationRepository).save(argThat(reg -> reg.getPrice().equals(expectedPrice)));
+        assertEquals(List.of(2L, 1L, 3L), registeredCourses.stream().map(Course::getId).toList());
+        verify(registrationRepository).saveAndFlush(argThat(reg -> reg.getPrice().equals(expectedPrice)));
+        verify(enrollmentSummaryService).recordRegistration(summary, newCourse.getId());
+        verify(registrationRepository, never()).findByStudentId(any());
     }
 
     @Test
@@ -136,7 +147,7 @@ class RegistrationServiceTest {
 
         assertEquals("Cannot register for a course that has already started", thrown.getMessage());
 
-        verify(registrationRepository, never()).save(any(Registration.class));
+        verify(registrationRepository, never()).saveAndFlush(any(Registration.class));
     }
 
 
@@ -158,18 +169,10 @@ class RegistrationServiceTest {
                 .price(1000L)
                 .build();
 
-        Registration existingRegistration = Registration.builder()
-                .id(1L)
-                .student(student)
-                .course(course)
-                .price(course.getPrice())
-                .registeredDate(new Date())
-                .build();
-
         when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
         when(courseRepository.findById(course.getId())).thenReturn(Optional.of(course));
-        when(registrationRepository.findByStudentId(student.getId()))
-                .thenReturn(List.of(existingRegistration));
+        when(enrollmentSummaryService.lockSummary(student.getId()))
+                .thenReturn(summaryOf(student.getId(), course.getId()));
 
         // When & Then
         Exception exception = assertThrows(RuntimeException.class, () ->
@@ -177,7 +180,7 @@ class RegistrationServiceTest {
         );
 
         assertEquals("Student has already registered for this course", exception.getMessage());
-        verify(registrationRepository, never()).save(any(Registration.class));
+        verify(registrationRepository, never()).saveAndFlush(any(Registration.class));
     }
     @Test
     void testRegisterCourse_StudentNotFound() {
@@ -245,14 +248,17 @@ class RegistrationServiceTest {
 
         when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
         when(courseRepository.findById(course.getId())).thenReturn(Optional.of(course));
-        when(registrationRepository.findByStudentId(student.getId()))
-                .thenReturn(Collections.singletonList(registration));
+        StudentEnrollmentSummary summary = summaryOf(student.getId(), course.getId());
+        when(enrollmentSummaryService.lockSummary(student.getId())).thenReturn(summary);
+        when(registrationRepository.findByStudentIdAndCourseId(student.getId(), course.getId()))
+                .thenReturn(Optional.of(registration));
 
         // When
         registrationService.unregisterCourse(student.getEmail(), course.getId());
 
         // Then
         verify(registrationRepository).delete(registration);
+        verify(enrollmentSummaryService).recordUnregistration(summary, course.getId());
     }
 
     @Test
@@ -283,14 +289,15 @@ class RegistrationServiceTest {
 
         when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
         when(courseRepository.findById(course.getId())).thenReturn(Optional.of(course));
-        when(registrationRepository.findByStudentId(student.getId()))
-                .thenReturn(Collections.singletonList(registration));
+        when(registrationRepository.findByStudentIdAndCourseId(student.getId(), course.getId()))
+                .thenReturn(Optional.of(registration));
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
                 registrationService.unregisterCourse(student.getEmail(), course.getId()));
 
         assertEquals("Cannot unregister from a course that has already started", exception.getMessage());
+        verify(enrollmentSummaryService, never()).lockSummary(any());
     }
 
     @Test
@@ -326,7 +333,7 @@ class RegistrationServiceTest {
 
         when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
         when(courseRepository.findById(course.getId())).thenReturn(Optional.of(course));
-        when(registrationRepository.findByStudentId(student.getId())).thenReturn(Collections.emptyList()); // Không có đăng ký nào
+        // Không có đăng ký nào
 
         Exception exception = assertThrows(RuntimeException.class, () -> {
             registrationService.unregisterCourse(student.getEmail(), course.getId());
@@ -334,6 +341,7 @@ class RegistrationServiceTest {
 
         assertEquals("Registration not found", exception.getMessage());
         verify(registrationRepository, never()).delete(any(Registration.class));
+        verify(enrollmentSummaryService, never()).lockSummary(any());
     }
 
     @Test
@@ -360,7 +368,8 @@ class RegistrationServiceTest {
 
         when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
         when(courseRepository.findById(course.getId())).thenReturn(Optional.of(course));
-        when(registrationRepository.findByStudentId(student.getId())).thenReturn(List.of(registration));
+        when(registrationRepository.findByStudentIdAndCourseId(student.getId(), course.getId()))
+                .thenReturn(Optional.of(registration));
 
         // Gọi service và kiểm tra exception
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -369,6 +378,166 @@ class RegistrationServiceTest {
 
         assertEquals("Cannot unregister from a course that has already started", exception.getMessage());
         verify(registrationRepository, never()).delete(any(Registration.class));
+        verify(enrollmentSummaryService, never()).lockSummary(any());
+    }
+
+    @Test
+    void testUnregisterCourse_NotRegistered_DoesNotClaimWaitlist() {
+        Student student = Student.builder()
+                .id(1L)
+                .email("student@example.com")
+                .build();
+
+        Course course = Course.builder()
+                .id(1L)
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000))
+                .capacity(1)
+                .build();
+
+        when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
+        when(courseRepository.findById(course.getId())).thenReturn(Optional.of(course));
+
+        Exception exception = assertThrows(RuntimeException.class, () ->
+                registrationService.unregisterCourse(student.getEmail(), course.getId()));
+
+        assertEquals("Registration not found", exception.getMessage());
+        verify(waitlistService, never()).firstWaiting(any(), anyInt());
+        verify(waitlistService, never()).claim(any(), any());
+    }
+
+    @Test
+    void testRegisterCourse_Fail_DuplicateRejectedByConstraint() {
+        Student student = Student.builder()
+                .id(1L)
+                .email("student@example.com")
+                .build();
+
+        Course course = Course.builder()
+                .id(1L)
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000))
+                .price(1000L)
+                .build();
+
+        // Summary chưa thấy đăng ký (đăng ký đồng thời), ràng buộc unique chặn lại
+        when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
+        when(courseRepository.findById(course.getId())).thenReturn(Optional.of(course));
+        when(enrollmentSummaryService.lockSummary(student.getId())).thenReturn(summaryOf(student.getId()));
+        when(registrationRepository.saveAndFlush(any(Registration.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_registration_student_course"));
+
+        Exception exception = assertThrows(RuntimeException.class, () ->
+                registrationService.registerCourse(student.getEmail(), course.getId()));
+
+        assertEquals("Student has already registered for this course", exception.getMessage());
+        verify(enrollmentSummaryService, never()).recordRegistration(any(), any());
+    }
+
+    @Test
+    void testRegisterCourse_Fail_OtherConstraintViolationIsRethrown() {
+        Student student = Student.builder()
+                .id(1L)
+                .email("student@example.com")
+                .build();
+
+        Course course = Course.builder()
+                .id(1L)
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000))
+                .price(1000L)
+                .build();
+
+        // Vi phạm khóa ngoại không phải "đã đăng ký": ném tiếp để controller trả 5xx
+        DataIntegrityViolationException foreignKeyViolation =
+                new DataIntegrityViolationException("fk_registration_course");
+        when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
+        when(courseRepository.findById(course.getId())).thenReturn(Optional.of(course));
+        when(enrollmentSummaryService.lockSummary(student.getId())).thenReturn(summaryOf(student.getId()));
+        when(registrationRepository.saveAndFlush(any(Registration.class))).thenThrow(foreignKeyViolation);
+
+        Exception exception = assertThrows(DataIntegrityViolationException.class, () ->
+                registrationService.registerCourse(student.getEmail(), course.getId()));
+
+        assertSame(foreignKeyViolation, exception);
+        verify(enrollmentSummaryService, never()).recordRegistration(any(), any());
+    }
+
+    //checkout
+    @Test
+    void testCheckout_Success_ProgressiveDiscount() {
+        Student student = Student.builder()
+                .id(1L)
+                .email("student@example.com")
+                .build();
+
+        Course course1 = Course.builder()
+                .id(1L)
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000))
+                .price(1000L)
+                .build();
+
+        Course course2 = Course.builder()
+                .id(2L)
+                .name("Spring Boot")
+                .startTime(new Date(System.currentTimeMillis() + 86400000 * 2))
+                .price(2000L)
+                .build();
+
+        Course course3 = Course.builder()
+                .id(3L)
+                .name("Microservices")
+                .startTime(new Date(System.currentTimeMillis() + 86400000 * 3))
+                .price(3000L)
+                .build();
+
+        when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
+        when(courseRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(course2, course3));
+        when(enrollmentSummaryService.lockSummary(student.getId())).thenReturn(summaryOf(student.getId(), course1.getId()));
+        when(registrationRepository.findRegisteredCourses(student.getId())).thenReturn(List.of(course1));
+
+        CheckoutResponse response = registrationService.checkout(student.getEmail(), List.of(2L, 3L));
+
+        assertEquals(2000L, response.getItems().get(0).getPrice());
+        assertEquals(2250L, response.getItems().get(1).getPrice());
+        assertEquals(4250L, response.getTotalPrice());
+        assertEquals(3, response.getRegisteredCourses().size());
+        verify(registrationRepository).saveAllAndFlush(argThat(regs -> ((List<Registration>) regs).size() == 2));
+        verify(registrationRepository, never()).findByStudentId(any());
+    }
+
+    @Test
+    void testCheckout_Fail_OneCourseAlreadyRegistered_NothingSaved() {
+        Student student = Student.builder()
+                .id(1L)
+                .email("student@example.com")
+                .build();
+
+        Course course1 = Course.builder()
+                .id(1L)
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000))
+                .price(1000L)
+                .build();
+
+        Course course2 = Course.builder()
+                .id(2L)
+                .name("Spring Boot")
+                .startTime(new Date(System.currentTimeMillis() + 86400000 * 2))
+                .price(2000L)
+                .build();
+
+        when(studentRepository.findByEmail(student.getEmail())).thenReturn(student);
+        when(courseRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(course1, course2));
+        when(enrollmentSummaryService.lockSummary(student.getId())).thenReturn(summaryOf(student.getId(), course1.getId()));
+        when(registrationRepository.findRegisteredCourses(student.getId())).thenReturn(List.of(course1));
+
+        Exception exception = assertThrows(RuntimeException.class, () ->
+                registrationService.checkout(student.getEmail(), List.of(2L, 1L)));
+
+        assertEquals("Student has already registered for this course", exception.getMessage());
+        verify(registrationRepository, never()).saveAllAndFlush(any());
     }
 
 }
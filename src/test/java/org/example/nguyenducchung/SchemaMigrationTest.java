@@ -0,0 +1,137 @@
+package org.example.nguyenducchung;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Schema do Flyway tạo phải khớp với entity, và các truy vấn nóng phải đi qua index (EXPLAIN của H2
+ * in tên index được dùng, hoặc "tableScan" nếu quét cả bảng).
+ */
+@SpringBootTest
+class SchemaMigrationTest {
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testMigratedSchema_MatchesEntities() {
+        assertEquals(0, flyway.info().pending().length);
+        assertNotNull(flyway.info().current());
+
+        // Ném SchemaManagementException nếu thiếu bảng/cột/sequence hoặc sai kiểu
+        entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects();
+    }
+
+    @Test
+    void testStudentEmail_IsUnique() {
+        studentRepository.save(Student.builder().email("student@example.com").build());
+        assertThrows(Exception.class, () -> studentRepository.saveAndFlush(Student.builder().email("student@example.com").build()));
+    }
+
+    @Test
+    void testHotQueries_UseIndexes() {
+        Student student = studentRepository.save(Student.builder().email("student@example.com").build());
+        Course course = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+        registrationService.registerCourse(student.getEmail(), course.getId());
+
+        String findByEmail = lastSelect(() -> studentRepository.findByEmailIn(List.of("student@example.com")));
+        assertUsesIndex(explain(findByEmail, "student@example.com"), "UX_STUDENT_EMAIL");
+
+        String findByStudentId = lastSelect(() -> registrationRepository.findByStudentId(student.getId()));
+        assertIndexLookup(explain(findByStudentId, student.getId()), "REGISTRATION", "STUDENT_ID");
+
+        String startTimeAfter = lastSelect(() -> registrationRepository.findByStudentAndCourseStartTimeAfter(student, new Date()));
+        assertIndexLookup(explain(startTimeAfter, student.getId(), new Date()), "REGISTRATION", "STUDENT_ID");
+
+        String findByStudentAndCourse = lastSelect(() -> registrationRepository.findByStudentIdAndCourseId(student.getId(), course.getId()));
+        assertIndexLookup(explain(findByStudentAndCourse, student.getId(), course.getId()), "REGISTRATION", "STUDENT_ID");
+
+        String roster = lastSelect(() -> registrationRepository.findCourseRoster(course.getId(), 0L, org.springframework.data.domain.Limit.of(10)));
+        assertUsesIndex(explain(roster, course.getId(), 0L), "IX_REGISTRATION_COURSE_ID");
+
+        assertUsesIndex(explain("select id from course where start_time > ?", new Date()), "IX_COURSE_START_TIME");
+    }
+
+    private static String lastSelect(Runnable query) {
+        return lastStatement("select", query);
+    }
+
+    private static String lastStatement(String type, Runnable query) {
+        SqlStatementCounter.reset();
+        query.run();
+        List<String> statements = SqlStatementCounter.statements().stream()
+                .filter(sql -> sql.startsWith(type))
+                .toList();
+        assertFalse(statements.isEmpty(), "No " + type + " captured");
+        return statements.get(statements.size() - 1);
+    }
+
+    private String explain(String sql, Object... params) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, params));
+    }
+
+    /**
+     * H2 tự tạo thêm index cho khóa ngoại student_id (không dùng lại uk_registration_student_course),
+     * nên chỉ kiểm tra bảng được tra bằng một index có cột đầu là column thay vì một tên index cụ thể.
+     */
+    private static void assertIndexLookup(String plan, String table, String column) {
+        assertFalse(plan.contains("PUBLIC." + table + ".tableScan"), plan);
+        assertTrue(plan.matches("(?s).*/\\* PUBLIC\\.\\w+: [^*]*\\b" + column + " = .*"), plan);
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue(plan.toUpperCase().contains(index), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
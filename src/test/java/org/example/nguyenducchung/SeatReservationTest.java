@@ -0,0 +1,193 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationRules;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.example.nguyenducchung.services.SeatReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SeatReservationTest {
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    private Course saveCourse(int capacity) {
+        return courseRepository.save(Course.builder()
+                .name("Popular course")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .capacity(capacity)
+                .build());
+    }
+
+    private List<String> saveStudents(String prefix, int count) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            students.add(Student.builder().email(prefix + i + "@example.com").build());
+        }
+        return studentRepository.saveAll(students).stream().map(Student::getEmail).toList();
+    }
+
+    @Test
+    void concurrentRegistrations_NeverOverbook() throws Exception {
+        int capacity = 100;
+        Course course = saveCourse(capacity);
+        List<String> emails = saveStudents("stress", 2000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (String email : emails) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    registrationService.registerCourse(email, course.getId());
+                    succeeded.incrementAndGet();
+                }
+                catch (RuntimeException e) {
+                    assertEquals(RegistrationRules.COURSE_FULL, e.getMessage());
+                    full.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(capacity, succeeded.get());
+        assertEquals(emails.size() - capacity, full.get());
+        assertEquals(capacity, jdbcTemplate.queryForObject(
+                "select count(*) from registration where course_id = ?", Integer.class, course.getId()));
+        assertEquals(capacity, seatReservationService.takenSeats(course.getId()));
+    }
+
+    @Test
+    void rolledBackRegistration_ReleasesSeat() {
+        Course course = saveCourse(1);
+        List<String> emails = saveStudents("rollback", 2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            registrationService.registerCourse(emails.get(0), course.getId());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, seatReservationService.takenSeats(course.getId()));
+        registrationService.registerCourse(emails.get(1), course.getId());
+        assertEquals(1, seatReservationService.takenSeats(course.getId()));
+    }
+
+    @Test
+    void unregistration_FreesSeatForNextStudent() {
+        Course course = saveCourse(1);
+        List<String> emails = saveStudents("unregister", 2);
+
+        registrationService.registerCourse(emails.get(0), course.getId());
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> registrationService.registerCourse(emails.get(1), course.getId()));
+        assertEquals(RegistrationRules.COURSE_FULL, exception.getMessage());
+
+        registrationService.unregisterCourse(emails.get(0), course.getId());
+        registrationService.registerCourse(emails.get(1), course.getId());
+
+        assertEquals(1, seatReservationService.takenSeats(course.getId()));
+    }
+
+    @Test
+    void rebuild_CountsExistingRegistrations() {
+        Course course = saveCourse(2);
+        List<String> emails = saveStudents("rebuild", 3);
+        // Đăng ký ghi thẳng vào DB (ví dụ trước khi khởi động lại), không qua bộ đếm
+        for (int i = 0; i < 2; i++) {
+            jdbcTemplate.update("insert into registration (id, student_id, course_id, price, registered_date) "
+                            + "select next value for registration_seq, id, ?, 1000, current_timestamp from student where email = ?",
+                    course.getId(), emails.get(i));
+        }
+
+        seatReservationService.rebuild();
+
+        assertEquals(2, seatReservationService.takenSeats(course.getId()));
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> registrationService.registerCourse(emails.get(2), course.getId()));
+        assertEquals(RegistrationRules.COURSE_FULL, exception.getMessage());
+    }
+
+    @Test
+    void prefetch_CountsUncountedCoursesInOneQuery() {
+        Course full = saveCourse(2);
+        Course empty = saveCourse(2);
+        List<String> emails = saveStudents("prefetch", 3);
+        for (int i = 0; i < 2; i++) {
+            registrationService.registerCourse(emails.get(i), full.getId());
+        }
+        seatReservationService.clear();
+
+        SqlStatementCounter.reset();
+        seatReservationService.prefetch(List.of(full, empty));
+
+        assertEquals(1, SqlStatementCounter.count("from registration\\b"), SqlStatementCounter.statements().toString());
+        assertEquals(2, seatReservationService.takenSeats(full.getId()));
+        assertEquals(0, seatReservationService.takenSeats(empty.getId()));
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> registrationService.checkout(emails.get(2), List.of(empty.getId(), full.getId())));
+        assertEquals(RegistrationRules.COURSE_FULL, exception.getMessage());
+        assertEquals(0, seatReservationService.takenSeats(empty.getId()));
+    }
+}
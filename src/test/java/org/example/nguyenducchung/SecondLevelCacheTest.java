@@ -0,0 +1,74 @@
+package org.example.nguyenducchung;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void testRegisterCourse_HotCourseIsServedFromSecondLevelCache() {
+        Course hotCourse = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+        for (int i = 0; i < 5; i++) {
+            studentRepository.save(Student.builder().email("student" + i + "@example.com").build());
+        }
+
+        // Lần đầu có thể nạp khóa học vào cache
+        registrationService.registerCourse("student0@example.com", hotCourse.getId());
+
+        SqlStatementCounter.reset();
+        for (int i = 1; i < 5; i++) {
+            registrationService.registerCourse("student" + i + "@example.com", hotCourse.getId());
+        }
+
+        assertEquals(0, SqlStatementCounter.count("from course\\b"), SqlStatementCounter.statements().toString());
+        assertTrue(entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getSecondLevelCacheHitCount() > 0);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.configs.ServerTimingFilter;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ServerTimingTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository.save(Student.builder().email("timing@example.com").build());
+        course = courseRepository.save(Course.builder()
+                .name("Java Basics")
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(1000L)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testRegisterCourse_WithTimingHeader_ReturnsBreakdown() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ServerTimingFilter.REQUEST_HEADER, "1");
+
+        ResponseEntity<String> response = register(headers);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("Java Basics"));
+        String serverTiming = response.getHeaders().getFirst(ServerTimingFilter.RESPONSE_HEADER);
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.matches(".*db;dur=[0-9.]+.*"), serverTiming);
+        assertTrue(serverTiming.matches(".*service;dur=[0-9.]+.*"), serverTiming);
+        assertTrue(serverTiming.matches(".*serialization;dur=[0-9.]+.*"), serverTiming);
+
+        Matcher sql = Pattern.compile("sql;desc=\"(\\d+) statements\"(;|,|$)").matcher(serverTiming);
+        assertTrue(sql.find(), serverTiming);
+        assertTrue(Integer.parseInt(sql.group(1)) > 0, serverTiming);
+        assertNotEquals(";", sql.group(2), "sql entry must not carry a dur: " + serverTiming);
+    }
+
+    @Test
+    void testRegisterCourse_CountsJdbcTemplateStatements() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ServerTimingFilter.REQUEST_HEADER, "1");
+
+        SqlStatementCounter.reset();
+        ResponseEntity<String> response = register(headers);
+
+        // Sinh viên chưa có summary: summary được tạo bằng JdbcTemplate, không qua Hibernate
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<String> statements = SqlStatementCounter.statements();
+        assertTrue(SqlStatementCounter.count("insert into student_enrollment_summary \\(.*select") > 0, statements.toString());
+        String serverTiming = response.getHeaders().getFirst(ServerTimingFilter.RESPONSE_HEADER);
+        Matcher sql = Pattern.compile("sql;desc=\"(\\d+) statements\"").matcher(serverTiming);
+        assertTrue(sql.find(), serverTiming);
+        assertEquals(statements.size(), Integer.parseInt(sql.group(1)), serverTiming + "\n" + String.join("\n", statements));
+    }
+
+    @Test
+    void testRegisterCourse_WithoutTimingHeader_NoBreakdown() {
+        ResponseEntity<String> response = register(new HttpHeaders());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(ServerTimingFilter.RESPONSE_HEADER));
+    }
+
+    private ResponseEntity<String> register(HttpHeaders headers) {
+        return restTemplate.exchange("/api/registrations/register?studentEmail={email}&courseId={courseId}",
+                HttpMethod.POST, new HttpEntity<>(headers), String.class, "timing@example.com", course.getId());
+    }
+}
@@ -0,0 +1,260 @@
+package org.example.nguyenducchung;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.nguyenducchung.configs.CacheConfig;
+import org.example.nguyenducchung.models.dtos.RegistrationTicket;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Registration;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.services.EnrollmentSummaryService;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.example.nguyenducchung.services.SeatReservationService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ngân sách số câu SQL cho từng thao tác của RegistrationService và controller, trên dữ liệu gần với
+ * thực tế ({@value #STUDENTS} sinh viên, {@value #COURSES} khóa học, mỗi sinh viên đã có 3 đăng ký).
+ * <p>
+ * Mỗi thao tác được đo với cache lạnh (xóa studentsByEmail, second-level cache và bộ đếm chỗ của
+ * SeatReservationService trước khi chạy) nên con số là trường hợp xấu nhất. Câu SQL được đếm ở DataSource
+ * bằng {@link SqlStatementCounter}, gồm cả câu gửi qua JdbcTemplate; một JDBC batch tính là một câu. Thêm vòng lặp lazy-load hay một round-trip mới sẽ làm vượt ngân sách và hỏng build;
+ * nếu thay đổi là cố ý thì sửa ngân sách tương ứng trong cùng commit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlStatementBudgetTest {
+    private static final int STUDENTS = 200;
+    private static final int COURSES = 30;
+    // Thao tác có insert Registration có thể phải lấy thêm một dải id từ registration_seq
+    private static final int SEQUENCE = 1;
+    // Khóa học có capacity: bộ đếm chỗ lạnh được nạp bằng một câu JDBC (cả giỏ/lô trong một câu)
+    private static final int SEATS = 1;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private EnrollmentSummaryService enrollmentSummaryService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<Course> courses = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        List<Student> students = studentRepository.saveAll(IntStream.range(0, STUDENTS)
+                .mapToObj(i -> Student.builder().email(email(i)).firstName("First" + i).lastName("Last" + i).build())
+                .toList());
+        courses.addAll(courseRepository.saveAll(IntStream.range(0, COURSES)
+                .mapToObj(i -> Course.builder()
+                        .name("Course " + i)
+                        .startTime(new Date(System.currentTimeMillis() + 86400000L * (i + 1)))
+                        .endTime(new Date(System.currentTimeMillis() + 86400000L * (i + 30)))
+                        .price(1000L + i)
+                        .capacity(STUDENTS)
+                        .build())
+                .toList()));
+
+        // Sinh viên i đã đăng ký các khóa i, i+1, i+2 (mod COURSES)
+        List<Registration> registrations = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            for (int k = 0; k < 3; k++) {
+                registrations.add(Registration.builder()
+                        .student(students.get(i))
+                        .course(courses.get((i + k) % COURSES))
+                        .price(1000L)
+                        .registeredDate(new Date())
+                        .build());
+            }
+        }
+        registrationRepository.saveAll(registrations);
+        enrollmentSummaryService.rebuildAll();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    private static String email(int i) {
+        return "student" + i + "@example.com";
+    }
+
+    private Long courseId(int i) {
+        return courses.get(i).getId();
+    }
+
+    /**
+     * Chạy action với cache lạnh và kiểm tra số câu SQL không vượt budget.
+     */
+    private void assertStatementBudget(String operation, int budget, ThrowingRunnable action) throws Exception {
+        cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL).clear();
+        entityManagerFactory.getCache().evictAll();
+        seatReservationService.clear();
+        SqlStatementCounter.reset();
+
+        action.run();
+
+        List<String> statements = SqlStatementCounter.statements();
+        assertTrue(statements.size() <= budget, operation + " issued " + statements.size() + " SQL statements, budget is "
+                + budget + ":\n" + String.join("\n", statements));
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Test
+    void testRegisterCourse() throws Exception {
+        // student, course, khóa summary + courseIds, insert, các khóa đã đăng ký, update summary + courseIds
+        assertStatementBudget("registerCourse", 8 + SEATS + SEQUENCE, () -> registrationService.registerCourse(email(0), courseId(10)));
+    }
+
+    @Test
+    void testRegisterCourseView() throws Exception {
+        assertStatementBudget("registerCourseView", 7 + SEATS + SEQUENCE, () -> registrationService.registerCourseView(email(1), courseId(10)));
+    }
+
+    @Test
+    void testCheckout() throws Exception {
+        assertStatementBudget("checkout", 8 + SEATS + SEQUENCE,
+                () -> registrationService.checkout(email(2), List.of(courseId(10), courseId(11), courseId(12))));
+    }
+
+    @Test
+    void testRegisterBatch() throws Exception {
+        List<RegistrationTicket> tickets = IntStream.range(3, 13)
+                .mapToObj(i -> RegistrationTicket.builder()
+                        .ticketId("ticket-" + i)
+                        .studentEmail(email(i))
+                        .courseId(courseId(20))
+                        .status(RegistrationTicket.Status.PENDING)
+                        .build())
+                .toList();
+        // courseIds của cả 10 summary được nạp trong một câu (@BatchSize), không phải 10 câu
+        assertStatementBudget("registerBatch(10)", 6 + SEATS + SEQUENCE, () -> {
+            List<RegistrationTicket> results = registrationService.registerBatch(tickets);
+            assertEquals(10, results.stream().filter(result -> result.getStatus() == RegistrationTicket.Status.REGISTERED).count());
+        });
+    }
+
+    @Test
+    void testQuote() throws Exception {
+        List<Long> cart = List.of(courseId(10), courseId(11), courseId(12));
+        // student, các khóa học, summary + courseIds (không khóa)
+        assertStatementBudget("quote", 4, () -> registrationService.quote(email(20), cart));
+        // Lần sau số đăng ký của sinh viên lấy từ cache
+        assertStatementBudget("quote (cached student)", 2, () -> registrationService.quote(email(20), cart));
+    }
+
+    @Test
+    void testUnregisterCourse() throws Exception {
+        assertStatementBudget("unregisterCourse", 8, () -> registrationService.unregisterCourse(email(13), courseId(13)));
+    }
+
+    @Test
+    void testListStudentRegistrations() throws Exception {
+        assertStatementBudget("listStudentRegistrations", 2,
+                () -> assertEquals(3, registrationService.listStudentRegistrations(email(14), null, 20).getItems().size()));
+    }
+
+    @Test
+    void testListCourseRoster() throws Exception {
+        assertStatementBudget("listCourseRoster", 2,
+                () -> registrationService.listCourseRoster(courseId(5), null, 50));
+    }
+
+    @Test
+    void testRegisterEndpoint() throws Exception {
+        assertStatementBudget("POST /register", 8 + SEATS + SEQUENCE, () -> perform(post("/api/registrations/register")
+                .param("studentEmail", email(15))
+                .param("courseId", courseId(25).toString())));
+    }
+
+    @Test
+    void testCheckoutEndpoint() throws Exception {
+        assertStatementBudget("POST /checkout", 8 + SEATS + SEQUENCE, () -> perform(post("/api/registrations/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"studentEmail\":\"" + email(16) + "\",\"courseIds\":[" + courseId(26) + "," + courseId(27) + "]}")));
+    }
+
+    @Test
+    void testQuoteEndpoint() throws Exception {
+        assertStatementBudget("POST /quote", 4, () -> perform(post("/api/registrations/quote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"studentEmail\":\"" + email(21) + "\",\"courseIds\":[" + courseId(26) + "," + courseId(27) + "]}")));
+    }
+
+    @Test
+    void testUnregisterEndpoint() throws Exception {
+        assertStatementBudget("DELETE /unregister", 8,
+                () -> perform(delete("/api/registrations/unregister/" + courseId(18) + "/" + email(18))));
+    }
+
+    @Test
+    void testListStudentRegistrationsEndpoint() throws Exception {
+        assertStatementBudget("GET /students/{email}", 2,
+                () -> perform(get("/api/registrations/students/" + email(19))));
+    }
+
+    @Test
+    void testListCourseRosterEndpoint() throws Exception {
+        assertStatementBudget("GET /courses/{courseId}/roster", 2,
+                () -> perform(get("/api/registrations/courses/" + courseId(5) + "/roster").param("size", "50")));
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.nguyenducchung;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Listener của datasource-proxy dùng trong test: ghi lại mọi câu SQL gửi xuống DataSource (Hibernate,
+ * JdbcTemplate) để đếm số round-trip của từng thao tác. Một JDBC batch tính là một câu.
+ */
+@Component
+public class SqlStatementCounter implements QueryExecutionListener {
+    private static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        STATEMENTS.add(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    public static long count(String regex) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().matches("(?s).*" + regex + ".*"))
+                .count();
+    }
+}
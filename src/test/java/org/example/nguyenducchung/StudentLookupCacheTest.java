@@ -0,0 +1,158 @@
+package org.example.nguyenducchung;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.nguyenducchung.configs.CacheConfig;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StudentLookupCacheTest {
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = (CaffeineCache) cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL);
+        cache.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void testFindByEmail_SecondLookupIsCacheHit() {
+        studentRepository.save(Student.builder().email("student@example.com").firstName("John").build());
+        CacheStats before = cache.getNativeCache().stats();
+
+        studentRepository.findByEmail("student@example.com");
+        studentRepository.findByEmail("student@example.com");
+
+        CacheStats stats = cache.getNativeCache().stats().minus(before);
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.hitCount());
+    }
+
+    @Test
+    void testFindByEmail_UnknownEmailFoundAfterInsert() {
+        assertNull(studentRepository.findByEmail("late@example.com"));
+
+        studentRepository.save(Student.builder().email("late@example.com").build());
+
+        assertNotNull(studentRepository.findByEmail("late@example.com"));
+    }
+
+    @Test
+    void testFindByEmail_NoStaleEntryAfterUpdate() {
+        Student student = studentRepository.save(Student.builder().email("student@example.com").firstName("John").build());
+        assertEquals("John", studentRepository.findByEmail("student@example.com").getFirstName());
+
+        student.setFirstName("Jane");
+        studentRepository.save(student);
+
+        assertEquals("Jane", studentRepository.findByEmail("student@example.com").getFirstName());
+    }
+
+    @Test
+    void testFindByEmail_NoStaleEntryAfterEmailChange() {
+        Student student = studentRepository.save(Student.builder().email("old@example.com").build());
+        assertNotNull(studentRepository.findByEmail("old@example.com"));
+
+        student.setEmail("new@example.com");
+        studentRepository.save(student);
+
+        assertNull(studentRepository.findByEmail("old@example.com"));
+        assertEquals(student.getId(), studentRepository.findByEmail("new@example.com").getId());
+    }
+
+    @Test
+    void testFindByEmail_NoStaleEntryAfterDelete() {
+        Student student = studentRepository.save(Student.builder().email("student@example.com").build());
+        assertNotNull(studentRepository.findByEmail("student@example.com"));
+
+        studentRepository.deleteById(student.getId());
+
+        assertNull(studentRepository.findByEmail("student@example.com"));
+    }
+
+    @Test
+    void testFindByEmail_NoStaleEntryWhileConcurrentReadersReload() throws Exception {
+        Long studentId = studentRepository.save(Student.builder().email("student@example.com").firstName("v0").build()).getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(readers.submit(() -> {
+                while (running.get()) {
+                    studentRepository.findByEmail("student@example.com");
+                }
+            }));
+        }
+        try {
+            for (int i = 1; i <= 50; i++) {
+                String firstName = "v" + i;
+                boolean explicitSave = i % 2 == 0;
+                transactionTemplate.executeWithoutResult(status -> {
+                    Student student = studentRepository.findById(studentId).orElseThrow();
+                    student.setFirstName(firstName);
+                    // Lần lẻ: chỉ dirty checking, không gọi save
+                    if (explicitSave) {
+                        studentRepository.save(student);
+                    }
+                    studentRepository.flush();
+                    // Giữ transaction mở để các luồng đọc kịp nạp lại bản đã commit trước đó
+                    sleep(5);
+                });
+
+                assertEquals(firstName, studentRepository.findByEmail("student@example.com").getFirstName(),
+                        "stale cache after commit #" + i);
+            }
+        }
+        finally {
+            running.set(false);
+            readers.shutdown();
+            assertTrue(readers.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.nguyenducchung;
+
+import org.example.nguyenducchung.configs.VirtualThreadPoolGuard;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPoolGuardTest {
+
+    @Test
+    void testGuard_RejectsWhenAllPermitsAreHeld() throws Exception {
+        VirtualThreadPoolGuard guard = new VirtualThreadPoolGuard(1, Duration.ofMillis(100));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                guard.doFilter(registerRequest(), new MockHttpServletResponse(), (request, response) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        guard.doFilter(registerRequest(), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        release.countDown();
+        holder.join();
+
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        guard.doFilter(registerRequest(), accepted, new MockFilterChain());
+        assertEquals(200, accepted.getStatus());
+    }
+
+    @Test
+    void testGuard_IgnoresOtherEndpoints() throws Exception {
+        VirtualThreadPoolGuard guard = new VirtualThreadPoolGuard(0, Duration.ZERO);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        guard.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+
+    private static MockHttpServletRequest registerRequest() {
+        return new MockHttpServletRequest("POST", "/api/registrations/register");
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.nguyenducchung;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Cùng kịch bản với {@link RegistrationLoadTest} nhưng Tomcat xử lý request trên virtual thread.
+ */
+@Tag("load")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadRegistrationLoadTest extends RegistrationLoadTest {
+}
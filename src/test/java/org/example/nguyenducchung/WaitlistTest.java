@@ -0,0 +1,228 @@
+package org.example.nguyenducchung;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.nguyenducchung.models.entities.Course;
+import org.example.nguyenducchung.models.entities.Registration;
+import org.example.nguyenducchung.models.entities.Student;
+import org.example.nguyenducchung.repositories.CourseRepository;
+import org.example.nguyenducchung.repositories.RegistrationRepository;
+import org.example.nguyenducchung.repositories.StudentEnrollmentSummaryRepository;
+import org.example.nguyenducchung.repositories.StudentRepository;
+import org.example.nguyenducchung.repositories.WaitlistEntryRepository;
+import org.example.nguyenducchung.services.RegistrationService;
+import org.example.nguyenducchung.services.SeatReservationService;
+import org.example.nguyenducchung.services.WaitlistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+class WaitlistTest {
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private StudentEnrollmentSummaryRepository summaryRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        waitlistEntryRepository.deleteAllInBatch();
+        summaryRepository.deleteAll();
+        registrationRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+    }
+
+    private Course saveCourse(String name, Integer capacity, long price) {
+        return courseRepository.save(Course.builder()
+                .name(name)
+                .startTime(new Date(System.currentTimeMillis() + 86400000)) // Ngày mai
+                .endTime(new Date(System.currentTimeMillis() + 86400000 * 10))
+                .price(price)
+                .capacity(capacity)
+                .build());
+    }
+
+    private List<String> saveStudents(String prefix, int count) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            students.add(Student.builder().email(prefix + i + "@example.com").build());
+        }
+        return studentRepository.saveAll(students).stream().map(Student::getEmail).toList();
+    }
+
+    @Test
+    void join_KeepsFifoPositionsAndLeaveMovesOthersUp() {
+        Course course = saveCourse("Full course", 1, 1000L);
+        List<String> emails = saveStudents("fifo", 4);
+
+        RuntimeException notFull = assertThrows(RuntimeException.class, () -> waitlistService.join(emails.get(1), course.getId()));
+        assertEquals(WaitlistService.SEATS_AVAILABLE, notFull.getMessage());
+
+        registrationService.registerCourse(emails.get(0), course.getId());
+        RuntimeException registered = assertThrows(RuntimeException.class, () -> waitlistService.join(emails.get(0), course.getId()));
+        assertEquals("Student has already registered for this course", registered.getMessage());
+
+        for (int i = 1; i < 4; i++) {
+            waitlistService.join(emails.get(i), course.getId());
+            assertEquals(i, waitlistService.position(emails.get(i), course.getId()).getPosition());
+        }
+        RuntimeException twice = assertThrows(RuntimeException.class, () -> waitlistService.join(emails.get(1), course.getId()));
+        assertEquals(WaitlistService.ALREADY_WAITLISTED, twice.getMessage());
+
+        waitlistService.leave(emails.get(1), course.getId());
+
+        assertEquals(1, waitlistService.position(emails.get(2), course.getId()).getPosition());
+        assertEquals(2, waitlistService.position(emails.get(3), course.getId()).getPosition());
+        assertEquals(2, waitlistService.position(emails.get(3), course.getId()).getWaitlistSize());
+        RuntimeException left = assertThrows(RuntimeException.class, () -> waitlistService.position(emails.get(1), course.getId()));
+        assertEquals(WaitlistService.NOT_WAITLISTED, left.getMessage());
+    }
+
+    @Test
+    void unregister_PromotesFirstEligibleStudentWithDiscount() {
+        Course course = saveCourse("Full course", 1, 1000L);
+        List<String> emails = saveStudents("promote", 3);
+        registrationService.registerCourse(emails.get(0), course.getId());
+        waitlistService.join(emails.get(1), course.getId());
+        waitlistService.join(emails.get(2), course.getId());
+
+        // Sinh viên đầu hàng đã có 2 đăng ký khác: được giảm giá như khi tự đăng ký
+        for (int i = 0; i < 2; i++) {
+            registrationService.registerCourse(emails.get(1), saveCourse("Other " + i, null, 1000L).getId());
+        }
+
+        registrationService.unregisterCourse(emails.get(0), course.getId());
+
+        Long promotedId = studentRepository.findByEmail(emails.get(1)).getId();
+        Registration promoted = registrationRepository.findByStudentIdAndCourseId(promotedId, course.getId()).orElseThrow();
+        assertEquals(750L, promoted.getPrice());
+        assertEquals(1, seatReservationService.takenSeats(course.getId()));
+        assertEquals(1, waitlistService.position(emails.get(2), course.getId()).getPosition());
+        assertFalse(waitlistEntryRepository.existsByCourseIdAndStudentId(course.getId(), promotedId));
+    }
+
+    @Test
+    void unregister_SkipsWaitingStudentWhoAlreadyRegistered() {
+        Course course = saveCourse("Full course", 1, 1000L);
+        List<String> emails = saveStudents("skip", 3);
+        registrationService.registerCourse(emails.get(0), course.getId());
+        waitlistService.join(emails.get(1), course.getId());
+        waitlistService.join(emails.get(2), course.getId());
+
+        // Ghi thẳng vào DB như thể sinh viên đầu hàng đã có chỗ bằng đường khác
+        jdbcTemplate.update("insert into registration (id, student_id, course_id, price, registered_date) "
+                        + "select next value for registration_seq, id, ?, 1000, current_timestamp from student where email = ?",
+                course.getId(), emails.get(1));
+
+        registrationService.unregisterCourse(emails.get(0), course.getId());
+
+        Long promotedId = studentRepository.findByEmail(emails.get(2)).getId();
+        assertTrue(registrationRepository.findByStudentIdAndCourseId(promotedId, course.getId()).isPresent());
+        assertEquals(0, waitlistEntryRepository.count());
+    }
+
+    @Test
+    void crossUnregisters_PromoteEachOtherWithoutDeadlock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        for (int round = 0; round < 10; round++) {
+            // Mỗi sinh viên hủy khóa học mà người kia đang chờ: cả hai summary bị khóa trong cả hai transaction
+            List<String> emails = saveStudents("swap" + round + "-", 2);
+            List<Course> courses = List.of(saveCourse("Swap A" + round, 1, 1000L), saveCourse("Swap B" + round, 1, 1000L));
+            for (int i = 0; i < 2; i++) {
+                registrationService.registerCourse(emails.get(i), courses.get(i).getId());
+            }
+            for (int i = 0; i < 2; i++) {
+                waitlistService.join(emails.get(i), courses.get(1 - i).getId());
+            }
+
+            CyclicBarrier start = new CyclicBarrier(2);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                String email = emails.get(i);
+                Long courseId = courses.get(i).getId();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    registrationService.unregisterCourse(email, courseId);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+
+            for (int i = 0; i < 2; i++) {
+                Long studentId = studentRepository.findByEmail(emails.get(i)).getId();
+                assertTrue(registrationRepository.findByStudentIdAndCourseId(studentId, courses.get(1 - i).getId()).isPresent());
+                assertFalse(registrationRepository.findByStudentIdAndCourseId(studentId, courses.get(i).getId()).isPresent());
+            }
+        }
+        executor.shutdown();
+        assertEquals(0, waitlistEntryRepository.count());
+    }
+
+    @Test
+    void sheddingManySeatsAtOnce_PromotesWaitlistInOrder() throws Exception {
+        int capacity = 200;
+        Course course = saveCourse("Large course", capacity, 1000L);
+        List<String> registered = saveStudents("seat", capacity);
+        List<String> waiting = saveStudents("waiting", capacity * 2);
+        registered.forEach(email -> registrationService.registerCourse(email, course.getId()));
+        waiting.forEach(email -> waitlistService.join(email, course.getId()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        long startedAt = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (String email : registered) {
+            futures.add(executor.submit(() -> registrationService.unregisterCourse(email, course.getId())));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+        log.info(String.format("Promoted %d students in %d ms (%d promotions/s)",
+                capacity, elapsedNanos / 1_000_000, capacity * 1_000_000_000L / elapsedNanos));
+
+        Set<String> promoted = new HashSet<>(jdbcTemplate.queryForList(
+                "select s.email from registration r join student s on s.id = r.student_id where r.course_id = ?",
+                String.class, course.getId()));
+        assertEquals(new HashSet<>(waiting.subList(0, capacity)), promoted);
+        assertEquals(capacity, seatReservationService.takenSeats(course.getId()));
+        assertEquals(capacity, waitlistEntryRepository.count());
+        assertEquals(1, waitlistService.position(waiting.get(capacity), course.getId()).getPosition());
+    }
+}